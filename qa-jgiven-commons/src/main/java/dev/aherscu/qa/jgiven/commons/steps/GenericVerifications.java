@@ -22,6 +22,7 @@ import static org.testng.Assert.*;
 
 import java.io.*;
 import java.nio.charset.*;
+import java.util.*;
 import java.util.function.*;
 
 import javax.annotation.concurrent.*;
@@ -29,7 +30,6 @@ import javax.annotation.concurrent.*;
 import org.apache.commons.io.*;
 import org.hamcrest.*;
 
-import com.google.common.collect.*;
 import com.tngtech.jgiven.annotation.*;
 
 import dev.aherscu.qa.jgiven.commons.formatters.*;
@@ -104,9 +104,11 @@ public class GenericVerifications<T extends AnyScenarioType, SELF extends Generi
     public final SELF eventually(final StepWithDescription<SELF> step,
         final Policy<SELF>... additionalRetryPolicies) {
         try {
-            return Failsafe
-                .with(Lists.asList(retryPolicy, additionalRetryPolicies))
-                .get(() -> step.apply(self()));
+            return retry(0 == additionalRetryPolicies.length
+                ? () -> step.apply(self())
+                : () -> Failsafe
+                    .with(Arrays.asList(additionalRetryPolicies))
+                    .get(() -> step.apply(self())));
         } catch (final Throwable t) {
             log.error("eventually got {}", t.getMessage());
             throw t;
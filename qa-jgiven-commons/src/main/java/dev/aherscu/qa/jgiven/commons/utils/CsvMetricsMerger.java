@@ -0,0 +1,205 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.jgiven.commons.utils;
+
+import static dev.aherscu.qa.testing.utils.FilenameUtilsExtensions.*;
+import static dev.aherscu.qa.testing.utils.StringUtilsExtensions.*;
+import static java.nio.charset.StandardCharsets.*;
+import static java.util.Objects.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+import lombok.*;
+import lombok.extern.slf4j.*;
+
+/**
+ * Merges the per-metric CSV files written by
+ * {@link com.codahale.metrics.CsvReporter} into a single CSV file, ordered by
+ * timestamp, prefixing each row with its metric name.
+ *
+ * <p>
+ * This is a streaming k-way merge: only the current row of each file is held in
+ * memory. Meanwhile, a summary of each metric is accumulated, holding for each
+ * numeric field its minimum, maximum and last values.
+ * </p>
+ */
+@Slf4j
+public final class CsvMetricsMerger {
+    private final List<Path> inputs;
+
+    /**
+     * @param inputs
+     *            the per-metric CSV files, each named after its metric and
+     *            starting with a header line
+     */
+    public CsvMetricsMerger(final List<Path> inputs) {
+        this.inputs = inputs;
+    }
+
+    /**
+     * Summary of a metric field.
+     */
+    @ToString
+    static final class FieldSummary {
+        long   samples;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        String last;
+
+        void update(final String value) {
+            samples++;
+            last = value;
+            try {
+                val number = Double.parseDouble(value);
+                min = Math.min(min, number);
+                max = Math.max(max, number);
+            } catch (final NumberFormatException e) {
+                // nothing to do -- not a numeric field
+            }
+        }
+    }
+
+    /**
+     * Current row of an input file.
+     */
+    private static final class Cursor implements Closeable {
+        final String                    metric;
+        final BufferedReader            reader;
+        final String[]                  fields;
+        final Map<String, FieldSummary> summary = new LinkedHashMap<>();
+        String                          line;
+        long                            timestamp;
+
+        Cursor(final Path path) throws IOException {
+            metric = getBaseName(path.toFile());
+            reader = Files.newBufferedReader(path, UTF_8);
+            val header = reader.readLine();
+            fields = isNull(header) ? new String[0] : header.split(COMMA);
+            for (int i = 1; i < fields.length; i++)
+                summary.put(fields[i], new FieldSummary());
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+
+        /**
+         * @return true if a row was read
+         * @throws IOException
+         *             upon failure
+         */
+        boolean advance() throws IOException {
+            while (nonNull(line = reader.readLine())) {
+                val comma = line.indexOf(',');
+                try {
+                    timestamp = Long.parseLong(
+                        comma < 0 ? line : line.substring(0, comma));
+                } catch (final NumberFormatException e) {
+                    log.warn("skipping malformed row in {}: {}", metric, line);
+                    continue;
+                }
+                summarize();
+                return true;
+            }
+            return false;
+        }
+
+        private void summarize() {
+            int field = 0, start = 0;
+            for (int end = line.indexOf(',');; end = line.indexOf(',', start)) {
+                if (field > 0 && field < fields.length)
+                    summary.get(fields[field])
+                        .update(end < 0
+                            ? line.substring(start)
+                            : line.substring(start, end));
+                if (end < 0)
+                    return;
+                field++;
+                start = end + 1;
+            }
+        }
+    }
+
+    /**
+     * Merges all inputs into specified output, and writes the summary.
+     *
+     * @param merged
+     *            the merged CSV file; its header is that of first input,
+     *            prefixed by a {@code metric} column
+     * @param summary
+     *            the summary CSV file, having
+     *            {@code metric,field,samples,min,max,last} columns
+     * @throws IOException
+     *             upon failure
+     */
+    public void merge(final Path merged, final Path summary)
+        throws IOException {
+        val cursors = new ArrayList<Cursor>(inputs.size());
+        try (val output = new PrintWriter(
+            Files.newBufferedWriter(merged, UTF_8))) {
+            val heads = new PriorityQueue<Cursor>(
+                Math.max(1, inputs.size()),
+                Comparator.<Cursor> comparingLong(cursor -> cursor.timestamp)
+                    .thenComparing(cursor -> cursor.metric));
+
+            for (val input : inputs) {
+                val cursor = new Cursor(input);
+                cursors.add(cursor);
+                if (cursors.size() == 1)
+                    output.println("metric," + String.join(COMMA,
+                        cursor.fields));
+                if (cursor.advance())
+                    heads.add(cursor);
+            }
+
+            while (!heads.isEmpty()) {
+                val cursor = heads.poll();
+                output.print(cursor.metric);
+                output.print(',');
+                output.println(cursor.line);
+                if (cursor.advance())
+                    heads.add(cursor);
+            }
+
+            writeSummary(cursors, summary);
+        } finally {
+            for (val cursor : cursors)
+                cursor.close();
+        }
+    }
+
+    private static void writeSummary(
+        final List<Cursor> cursors,
+        final Path summary) throws IOException {
+        try (val output = new PrintWriter(
+            Files.newBufferedWriter(summary, UTF_8))) {
+            output.println("metric,field,samples,min,max,last");
+            for (val cursor : cursors)
+                cursor.summary.forEach((field, fieldSummary) -> {
+                    val numeric = fieldSummary.min <= fieldSummary.max;
+                    output.printf(Locale.ROOT, "%s,%s,%d,%s,%s,%s%n",
+                        cursor.metric, field, fieldSummary.samples,
+                        numeric ? String.valueOf(fieldSummary.min) : EMPTY,
+                        numeric ? String.valueOf(fieldSummary.max) : EMPTY,
+                        defaultString(fieldSummary.last));
+                });
+        }
+    }
+}
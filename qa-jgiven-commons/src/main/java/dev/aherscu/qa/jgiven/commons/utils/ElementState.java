@@ -0,0 +1,87 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.aherscu.qa.jgiven.commons.utils;
+
+import static java.util.Collections.*;
+
+import java.util.*;
+
+import org.openqa.selenium.*;
+
+import lombok.*;
+
+/**
+ * Snapshot of the state of a DOM element, as retrieved in a single round-trip
+ * by {@link WebDriverEx#statesOf(List, String...)}.
+ *
+ * <p>
+ * NOTE: when retrieved via JavaScript, {@link #displayed} and {@link #text}
+ * approximate the Selenium semantics -- an element is considered displayed if
+ * it has a non-empty bounding box and is not hidden by CSS, and its text is its
+ * trimmed {@code innerText}.
+ * </p>
+ */
+@Builder
+@Getter
+@ToString
+@EqualsAndHashCode
+public class ElementState {
+    public final boolean             displayed;
+    public final boolean             enabled;
+    public final String              text;
+    /**
+     * Location relative to the document and size.
+     */
+    public final Rectangle           rect;
+    /**
+     * Values of requested attributes; missing attributes map to null.
+     */
+    public final Map<String, String> attributes;
+
+    /**
+     * Retrieves the state of an element via standard Selenium getters, one
+     * round-trip per getter; used for drivers not supporting JavaScript.
+     *
+     * @param element
+     *            the element
+     * @param attributes
+     *            names of attributes to retrieve
+     * @return state of element
+     */
+    public static ElementState of(
+        final WebElement element,
+        final Collection<String> attributes) {
+        val values = new LinkedHashMap<String, String>();
+        attributes
+            .forEach(name -> values.put(name, element.getAttribute(name)));
+        return builder()
+            .displayed(element.isDisplayed())
+            .enabled(element.isEnabled())
+            .text(element.getText())
+            .rect(element.getRect())
+            .attributes(unmodifiableMap(values))
+            .build();
+    }
+
+    /**
+     * @param name
+     *            name of attribute
+     * @return value of attribute, or null if missing or not requested
+     */
+    public String attribute(final String name) {
+        return attributes.get(name);
+    }
+}
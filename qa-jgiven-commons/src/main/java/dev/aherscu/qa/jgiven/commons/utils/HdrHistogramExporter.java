@@ -0,0 +1,172 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.jgiven.commons.utils;
+
+import static dev.aherscu.qa.testing.utils.ObjectMapperUtils.*;
+import static java.nio.charset.StandardCharsets.*;
+import static java.util.Objects.*;
+import static java.util.concurrent.TimeUnit.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+import org.HdrHistogram.Histogram;
+
+import com.codahale.metrics.MetricRegistry;
+
+import lombok.*;
+import lombok.experimental.*;
+
+/**
+ * Exports percentiles of timers backed by {@link HdrHistogramReservoir}, in
+ * JSON and in Prometheus text format. Values are in seconds. Percentiles are
+ * exported for all threads and for each thread separately; in Prometheus
+ * format, the former is labelled {@code thread="all"}, hence aggregating by
+ * {@code thread!="all"} does not count values twice.
+ */
+@UtilityClass
+public class HdrHistogramExporter {
+    /**
+     * The exported quantiles.
+     */
+    public static final double[] QUANTILES        =
+        { 0.5, 0.75, 0.9, 0.95, 0.99, 0.999 };
+
+    private static final double  NANOS_PER_SECOND = SECONDS.toNanos(1);
+
+    private static SortedMap<String, HdrHistogramReservoir> reservoirsOf(
+        final MetricRegistry registry) {
+        val reservoirs = new TreeMap<String, HdrHistogramReservoir>();
+        registry.getTimers().forEach((name, timer) -> {
+            // NOTE Timer does not expose its reservoir, hence these are
+            // tracked upon creation
+            val reservoir = HdrHistogramReservoir.of(timer);
+            if (nonNull(reservoir))
+                reservoirs.put(name, reservoir);
+        });
+        return reservoirs;
+    }
+
+    private static Map<String, Object> summaryOf(final Histogram histogram) {
+        val summary = new LinkedHashMap<String, Object>();
+        summary.put("count", histogram.getTotalCount());
+        summary.put("min", seconds(histogram.getMinValue()));
+        summary.put("mean", histogram.getMean() / NANOS_PER_SECOND);
+        summary.put("max", seconds(histogram.getMaxValue()));
+        for (val quantile : QUANTILES)
+            summary.put("p" + percentileLabel(quantile),
+                seconds(histogram.getValueAtPercentile(quantile * 100)));
+        return summary;
+    }
+
+    private static String percentileLabel(final double quantile) {
+        return String.valueOf(quantile * 100)
+            .replaceAll("\\.0$", "")
+            .replace('.', '_');
+    }
+
+    private static double seconds(final long nanos) {
+        return nanos / NANOS_PER_SECOND;
+    }
+
+    private static String prometheusName(final String name) {
+        return name.replaceAll("[^a-zA-Z0-9_:]", "_") + "_seconds";
+    }
+
+    private static String prometheusLabel(final String value) {
+        return value
+            .replace("\\", "\\\\")
+            .replace("\"", "\\\"")
+            .replace("\n", "\\n");
+    }
+
+    private static void writePrometheusSummary(
+        final PrintWriter output,
+        final String name,
+        final String thread,
+        final Histogram histogram,
+        final long sum) {
+        val label = "thread=\"" + prometheusLabel(thread) + "\"";
+        for (val quantile : QUANTILES)
+            output.printf(Locale.ROOT, "%s{%s,quantile=\"%s\"} %s%n",
+                name, label, quantile,
+                seconds(histogram.getValueAtPercentile(quantile * 100)));
+        output.printf(Locale.ROOT, "%s_sum{%s} %s%n", name, label,
+            seconds(sum));
+        output.printf(Locale.ROOT, "%s_count{%s} %d%n", name, label,
+            histogram.getTotalCount());
+    }
+
+    /**
+     * Writes percentiles as JSON, keyed by metric name, then by {@code all} and
+     * {@code threads}.
+     *
+     * @param registry
+     *            the metric registry
+     * @param path
+     *            the file to write
+     * @throws IOException
+     *             upon failure
+     */
+    public static void writeJson(
+        final MetricRegistry registry,
+        final Path path) throws IOException {
+        val metrics = new TreeMap<String, Object>();
+        reservoirsOf(registry).forEach((name, reservoir) -> {
+            val threads = new TreeMap<String, Object>();
+            reservoir.histogramsPerThread()
+                .forEach((thread, histogram) -> threads.put(thread,
+                    summaryOf(histogram)));
+            val metric = new LinkedHashMap<String, Object>();
+            metric.put("all", summaryOf(reservoir.histogram()));
+            metric.put("threads", threads);
+            metrics.put(name, metric);
+        });
+        mapper.writeValue(path.toFile(), metrics);
+    }
+
+    /**
+     * Writes percentiles as Prometheus summaries, in text exposition format,
+     * with exact sums.
+     *
+     * @param registry
+     *            the metric registry
+     * @param path
+     *            the file to write
+     * @throws IOException
+     *             upon failure
+     */
+    public static void writePrometheus(
+        final MetricRegistry registry,
+        final Path path) throws IOException {
+        try (val output = new PrintWriter(
+            Files.newBufferedWriter(path, UTF_8))) {
+            reservoirsOf(registry).forEach((name, reservoir) -> {
+                val prometheusName = prometheusName(name);
+                output.printf("# TYPE %s summary%n", prometheusName);
+                writePrometheusSummary(output, prometheusName, "all",
+                    reservoir.histogram(), reservoir.sum());
+                val sums = reservoir.sumsPerThread();
+                reservoir.histogramsPerThread()
+                    .forEach((thread, histogram) -> writePrometheusSummary(
+                        output, prometheusName, thread, histogram,
+                        sums.getOrDefault(thread, 0L)));
+            });
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.jgiven.commons.utils;
+
+import static java.nio.charset.StandardCharsets.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+
+import lombok.*;
+
+/**
+ * Reservoir recording all values into an HdrHistogram, thus preserving tail
+ * latencies, which the default decaying reservoirs tend to hide. Values are
+ * also recorded per thread name. Exact sums of values are tracked alongside,
+ * since histograms keep values only approximately.
+ *
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * METRIC_REGISTRY.timer(name("click"), HdrHistogramReservoir::timer)
+ * </pre>
+ * </p>
+ */
+public final class HdrHistogramReservoir implements Reservoir {
+    /**
+     * Number of significant decimal digits kept by histograms.
+     */
+    public static final int                                                               SIGNIFICANT_DIGITS =
+        3;
+
+    private static final ConcurrentMap<com.codahale.metrics.Timer, HdrHistogramReservoir> TIMERS             =
+        new ConcurrentHashMap<>();
+
+    private final Recording                                                               all                =
+        new Recording();
+    private final ConcurrentMap<String, Recording>                                        perThread          =
+        new ConcurrentHashMap<>();
+
+    /**
+     * @return a timer backed by this reservoir
+     */
+    public static com.codahale.metrics.Timer timer() {
+        val reservoir = new HdrHistogramReservoir();
+        val timer = new com.codahale.metrics.Timer(reservoir);
+        TIMERS.put(timer, reservoir);
+        return timer;
+    }
+
+    /**
+     * @param timer
+     *            a timer
+     * @return the reservoir of specified timer, or {@code null} if it was not
+     *         created via {@link #timer()}
+     */
+    public static HdrHistogramReservoir of(
+        final com.codahale.metrics.Timer timer) {
+        return TIMERS.get(timer);
+    }
+
+    private static Recording newRecording(
+        @SuppressWarnings("unused") final String threadName) {
+        return new Recording();
+    }
+
+    /**
+     * @return copy of all recorded values
+     */
+    public Histogram histogram() {
+        return all.histogram.copy();
+    }
+
+    /**
+     * @return copies of recorded values by thread name
+     */
+    public SortedMap<String, Histogram> histogramsPerThread() {
+        val histograms = new TreeMap<String, Histogram>();
+        perThread.forEach((threadName, recording) -> histograms
+            .put(threadName, recording.histogram.copy()));
+        return histograms;
+    }
+
+    /**
+     * @return exact sum of all recorded values
+     */
+    public long sum() {
+        return all.sum.sum();
+    }
+
+    /**
+     * @return exact sums of recorded values by thread name
+     */
+    public SortedMap<String, Long> sumsPerThread() {
+        val sums = new TreeMap<String, Long>();
+        perThread.forEach((threadName, recording) -> sums
+            .put(threadName, recording.sum.sum()));
+        return sums;
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(Integer.MAX_VALUE,
+            all.histogram.getTotalCount());
+    }
+
+    @Override
+    public void update(final long value) {
+        all.record(value);
+        perThread
+            .computeIfAbsent(Thread.currentThread().getName(),
+                HdrHistogramReservoir::newRecording)
+            .record(value);
+    }
+
+    @Override
+    public Snapshot getSnapshot() {
+        return new HdrSnapshot(all.histogram.copy());
+    }
+
+    /**
+     * Recorded values and their exact sum.
+     */
+    private static final class Recording {
+        final Histogram histogram =
+            new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+        final LongAdder sum       = new LongAdder();
+
+        void record(final long value) {
+            histogram.recordValue(value);
+            sum.add(value);
+        }
+    }
+
+    /**
+     * Adapts an HdrHistogram to Dropwizard's snapshot.
+     */
+    @RequiredArgsConstructor
+    static final class HdrSnapshot extends Snapshot {
+        private final Histogram histogram;
+
+        @Override
+        public double getValue(final double quantile) {
+            return histogram.getValueAtPercentile(quantile * 100);
+        }
+
+        @Override
+        public long[] getValues() {
+            val values = new long[size()];
+            int i = 0;
+            for (val value : histogram.recordedValues())
+                for (long n = 0; n < value.getCountAtValueIteratedTo()
+                    && i < values.length; n++)
+                    values[i++] = value.getValueIteratedTo();
+            return values;
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(Integer.MAX_VALUE,
+                histogram.getTotalCount());
+        }
+
+        @Override
+        public long getMax() {
+            return histogram.getMaxValue();
+        }
+
+        @Override
+        public double getMean() {
+            return histogram.getMean();
+        }
+
+        @Override
+        public long getMin() {
+            return histogram.getMinValue();
+        }
+
+        @Override
+        public double getStdDev() {
+            return histogram.getStdDeviation();
+        }
+
+        @Override
+        public void dump(final OutputStream output) {
+            try (val printStream = new PrintStream(output, false, UTF_8)) {
+                histogram.outputPercentileDistribution(printStream, 1.0);
+            }
+        }
+    }
+}
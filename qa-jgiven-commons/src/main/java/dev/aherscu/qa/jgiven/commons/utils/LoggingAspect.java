@@ -16,13 +16,18 @@
 
 package dev.aherscu.qa.jgiven.commons.utils;
 
+import static com.codahale.metrics.MetricRegistry.*;
+import static dev.aherscu.qa.jgiven.commons.utils.MetricReporterSuiteListener.*;
 import static dev.aherscu.qa.testing.utils.StringUtilsExtensions.*;
+import static java.lang.Boolean.*;
+import static java.lang.Integer.*;
 import static java.util.Arrays.*;
 import static java.util.Objects.*;
+import static java.util.concurrent.TimeUnit.*;
 import static java.util.stream.Collectors.*;
 
-import java.lang.SuppressWarnings;
 import java.util.*;
+import java.util.concurrent.*;
 
 import org.aspectj.lang.*;
 import org.aspectj.lang.annotation.*;
@@ -33,11 +38,60 @@ import lombok.extern.slf4j.*;
 
 /**
  * Logs execution of JGiven step methods.
+ *
+ * <p>
+ * Arguments are formatted only if trace logging is enabled, and then only for
+ * one in {@code step.trace.sampling} invocations, which defaults to 1, i.e.
+ * tracing all invocations. If {@code step.timing} is set, then durations of
+ * step methods are recorded into
+ * {@link MetricReporterSuiteListener#METRIC_REGISTRY} as
+ * {@code step.<declaring type>.<name>} timers.
+ * </p>
  */
 @SuppressFBWarnings("MS_SHOULD_BE_FINAL")
 @Aspect
 @Slf4j
 public class LoggingAspect {
+    final int                                                          sampling;
+    final boolean                                                      timing;
+    // NOTE keyed by signature, which is shared by all executions of a method
+    private final ConcurrentMap<Signature, com.codahale.metrics.Timer> timers =
+        new ConcurrentHashMap<>();
+
+    /**
+     * Configured via system properties.
+     */
+    public LoggingAspect() {
+        this(getInteger("step.trace.sampling", 1), getBoolean("step.timing"));
+    }
+
+    /**
+     * @param sampling
+     *            traces one in specified number of invocations
+     * @param timing
+     *            whether to record durations of step methods
+     */
+    LoggingAspect(final int sampling, final boolean timing) {
+        this.sampling = Math.max(1, sampling);
+        this.timing = timing;
+    }
+
+    /**
+     * @param signature
+     *            signature of a step method
+     * @return the timer of specified step method
+     */
+    private static com.codahale.metrics.Timer timerFor(
+        final Signature signature) {
+        return METRIC_REGISTRY.timer(
+            name("step", signature.getDeclaringTypeName(), signature.getName()),
+            HdrHistogramReservoir::timer);
+    }
+
+    private boolean sampled() {
+        return 1 == sampling
+            || 0 == ThreadLocalRandom.current().nextInt(sampling);
+    }
 
     /**
      * Logs step execution.
@@ -50,24 +104,33 @@ public class LoggingAspect {
      * @see #stepMethod()
      */
     @Around("stepMethod()")
-    @SuppressWarnings("static-method")
     public Object aroundStepMethod(
         final ProceedingJoinPoint thisJoinPoint)
         throws Throwable {
-        log.trace(">>> {}:{}",
-            thisJoinPoint.getSignature().getName(),
-            stream(isNull(thisJoinPoint.getArgs())
-                ? new Object[] {}
-                : thisJoinPoint.getArgs())
-                .map(arg -> Objects.toString(arg, "null"))
-                .collect(joining(COMMA, "[", "]")));
-
-        val retval = thisJoinPoint.proceed(thisJoinPoint.getArgs());
+        val tracing = log.isTraceEnabled() && sampled();
+        if (!tracing && !timing)
+            return thisJoinPoint.proceed();
 
-        log.trace("<<< {}",
-            thisJoinPoint.getSignature().getName());
+        val signature = thisJoinPoint.getSignature();
+        val stepName = signature.getName();
+        if (tracing)
+            log.trace(">>> {}:{}", stepName,
+                stream(isNull(thisJoinPoint.getArgs())
+                    ? new Object[] {}
+                    : thisJoinPoint.getArgs())
+                    .map(arg -> Objects.toString(arg, "null"))
+                    .collect(joining(COMMA, "[", "]")));
 
-        return retval;
+        val started = timing ? System.nanoTime() : 0L;
+        try {
+            return thisJoinPoint.proceed();
+        } finally {
+            if (timing)
+                timers.computeIfAbsent(signature, LoggingAspect::timerFor)
+                    .update(System.nanoTime() - started, NANOSECONDS);
+            if (tracing)
+                log.trace("<<< {}", stepName);
+        }
     }
 
     /**
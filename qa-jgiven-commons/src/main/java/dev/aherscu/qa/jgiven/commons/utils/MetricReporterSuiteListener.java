@@ -16,15 +16,12 @@
 
 package dev.aherscu.qa.jgiven.commons.utils;
 
-import static dev.aherscu.qa.testing.utils.FilenameUtilsExtensions.*;
 import static dev.aherscu.qa.testing.utils.NumberUtils.*;
 import static dev.aherscu.qa.testing.utils.StringUtilsExtensions.*;
 import static java.nio.file.Files.*;
 import static java.util.stream.StreamSupport.*;
-import static org.jooq.lambda.Sneaky.*;
 
 import java.io.*;
-import java.nio.charset.*;
 import java.nio.file.*;
 import java.util.*;
 import java.util.Timer;
@@ -42,7 +39,14 @@ import lombok.extern.slf4j.*;
  * On finish, writes all accumulated metrics to console and to CSV files. The
  * CSV files are written to directory as specified via {@code target-directory}
  * parameter. If this parameter is not specified, then {@code target} is
- * assumed.
+ * assumed. These are then merged, ordered by timestamp, into
+ * {@code all-metrics.csv}, and summarized into {@code metrics-summary.csv}.
+ *
+ * <p>
+ * Percentiles of timers backed by {@link HdrHistogramReservoir} are also
+ * written, per step and per thread, into {@code percentiles.json} and, in
+ * Prometheus text format, into {@code percentiles.prom}.
+ * </p>
  *
  * <p>
  * If {@code metric-report-interval-ms} parameter is specified, then plots the
@@ -66,44 +70,47 @@ public class MetricReporterSuiteListener implements ISuiteListener {
      * Assuming TestNG runs in a single classloader, then this is a singleton.
      * </p>
      */
-    public static final MetricRegistry METRIC_REGISTRY    =
+    public static final MetricRegistry METRIC_REGISTRY     =
         new MetricRegistry();
 
-    private static final String        CSV_HEADER_PATTERN =
-        "^[a-z]+[_|a-z|0-9]*(,[a-z]+[_|a-z|0-9]*)*$";
+    private static final String        ALL_METRICS_CSV     =
+        "all-metrics.csv";
+    private static final String        METRICS_SUMMARY_CSV =
+        "metrics-summary.csv";
+    private static final Set<String>   MERGED_CSV_FILES    =
+        Set.of(ALL_METRICS_CSV, METRICS_SUMMARY_CSV);
 
-    private final java.util.Timer      timer              =
+    private final java.util.Timer      timer               =
         new Timer("metrics-reporter");
 
-    private static Stream<Path> csvFilesStreamOf(final ISuite suite)
+    private static List<Path> csvFilesOf(final ISuite suite)
         throws IOException {
         try (val directories = newDirectoryStream(
             pathFor(suite), "*.csv")) {
-            return stream(directories.spliterator(), false);
+            return stream(directories.spliterator(), false)
+                .filter(path -> !MERGED_CSV_FILES
+                    .contains(path.getFileName().toString()))
+                .collect(Collectors.toList());
         }
     }
 
-    private static void mergeCsvFilesOf(final ISuite suite) {
-        try (val output =
-            new PrintWriter(
-                pathFor(suite)
-                    .resolve("all-metrics.csv")
-                    .toFile(),
-                StandardCharsets.UTF_8)) {
-
-            val wasHeaderProcessed = new boolean[] { false };
-
-            csvFilesStreamOf(suite)
-                .flatMap(path -> supplier(() -> lines(path)).get()
-                    .filter(line -> wasHeaderProcessed[0]
-                        ? !line.matches(CSV_HEADER_PATTERN)
-                        : (wasHeaderProcessed[0] = true))
-                    .map(line -> (line.matches(CSV_HEADER_PATTERN)
-                        ? "metric"
-                        : getBaseName(path.toFile()))
-                        + COMMA + line))
-                .forEach(line -> runnable(() -> output.println(line)).run());
+    private static void exportPercentilesOf(final ISuite suite) {
+        try {
+            HdrHistogramExporter.writeJson(METRIC_REGISTRY,
+                pathFor(suite).resolve("percentiles.json"));
+            HdrHistogramExporter.writePrometheus(METRIC_REGISTRY,
+                pathFor(suite).resolve("percentiles.prom"));
+        } catch (final IOException e) {
+            log.error("failed to export percentiles due to {}",
+                e.getMessage());
+        }
+    }
 
+    private static void mergeCsvFilesOf(final ISuite suite) {
+        try {
+            new CsvMetricsMerger(csvFilesOf(suite))
+                .merge(pathFor(suite).resolve(ALL_METRICS_CSV),
+                    pathFor(suite).resolve(METRICS_SUMMARY_CSV));
         } catch (final IOException e) {
             log.error("failed to merge metrics due to {}", e.getMessage());
         }
@@ -157,5 +164,7 @@ public class MetricReporterSuiteListener implements ISuiteListener {
         }
 
         mergeCsvFilesOf(suite);
+
+        exportPercentilesOf(suite);
     }
 }
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.jgiven.commons.utils;
+
+import static java.lang.Double.*;
+import static java.lang.Long.*;
+import static java.lang.System.*;
+import static java.time.Duration.*;
+
+import java.time.*;
+
+import lombok.*;
+
+/**
+ * Polling configuration: delays between attempts, growing exponentially with
+ * jitter, within a deadline budget.
+ *
+ * <p>
+ * Applied to retry policies by {@link StageEx}, which retries via
+ * {@link SignalAwareScheduler}, hence waiting is cut short whenever
+ * {@link StateChanges#signal()} is called.
+ * </p>
+ *
+ * <p>
+ * Defaults are read from system properties:
+ * <ul>
+ * <li>poll.initial.delay.ms -- first delay, defaults to 100 milliseconds</li>
+ * <li>poll.delay -- maximum delay, defaults to 1 second</li>
+ * <li>poll.backoff.factor -- multiplies the delay upon each attempt, defaults
+ * to 2</li>
+ * <li>poll.jitter -- randomly varies each delay by up to this fraction,
+ * defaults to 0.1</li>
+ * <li>poll.timeout -- the deadline budget, defaults to 10 seconds</li>
+ * </ul>
+ * </p>
+ */
+@Builder(toBuilder = true)
+@ToString
+public final class Polling {
+    /**
+     * Polling configured by system properties.
+     */
+    public static final Polling DEFAULT = Polling.builder()
+        .maxDelay(ofSeconds(parseLong(getProperty("poll.delay", "1"))))
+        .initialDelay(
+            ofMillis(parseLong(getProperty("poll.initial.delay.ms", "100"))))
+        .backoffFactor(parseDouble(getProperty("poll.backoff.factor", "2")))
+        .jitter(parseDouble(getProperty("poll.jitter", "0.1")))
+        .timeout(ofSeconds(parseLong(getProperty("poll.timeout", "10"))))
+        .build();
+
+    public final Duration       initialDelay;
+    public final Duration       maxDelay;
+    public final double         backoffFactor;
+    public final double         jitter;
+    public final Duration       timeout;
+}
@@ -30,6 +30,7 @@ import java.util.stream.*;
 import org.testng.*;
 
 import com.google.common.collect.*;
+import com.tngtech.jgiven.impl.*;
 import com.tngtech.jgiven.report.impl.*;
 import com.tngtech.jgiven.report.model.*;
 import com.tngtech.jgiven.testng.*;
@@ -148,6 +149,15 @@ public final class ScenarioTestListenerEx extends ScenarioTestListener {
                         .toString()));
     }
 
+    private static void flushScreenshotsOf(final ScenarioBase scenario) {
+        if (nonNull(scenario))
+            ScreenshotAttachments.flush(scenario.getScenarioCaseModel());
+    }
+
+    private static ScenarioBase scenarioOf(final ITestResult result) {
+        return (ScenarioBase) result.getAttribute(SCENARIO_ATTRIBUTE);
+    }
+
     @Override
     public void onFinish(final ITestContext context) {
         reportModelsFor(context)
@@ -187,10 +197,32 @@ public final class ScenarioTestListenerEx extends ScenarioTestListener {
                         }
                     });
 
+                ScreenshotAttachments.flush(reportModel);
                 reportHelper().finishReport(reportModel);
             });
     }
 
+    @Override
+    public void onTestFailure(final ITestResult result) {
+        val scenario = scenarioOf(result);
+        super.onTestFailure(result);
+        flushScreenshotsOf(scenario);
+    }
+
+    @Override
+    public void onTestSkipped(final ITestResult result) {
+        val scenario = scenarioOf(result);
+        super.onTestSkipped(result);
+        flushScreenshotsOf(scenario);
+    }
+
+    @Override
+    public void onTestSuccess(final ITestResult result) {
+        val scenario = scenarioOf(result);
+        super.onTestSuccess(result);
+        flushScreenshotsOf(scenario);
+    }
+
     private Multimap<SessionName, WebDriverSessionInfo> remoteSessions() {
         return nonNull(alternativeRemoteSessions)
             ? alternativeRemoteSessions
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.jgiven.commons.utils;
+
+import static dev.aherscu.qa.jgiven.commons.utils.StageEx.*;
+import static dev.aherscu.qa.testing.utils.ImageUtils.*;
+import static java.lang.Integer.*;
+import static java.lang.Runtime.*;
+import static java.util.Objects.*;
+import static org.apache.commons.codec.binary.Base64.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import com.tngtech.jgiven.*;
+import com.tngtech.jgiven.attachment.*;
+import com.tngtech.jgiven.report.model.*;
+
+import lombok.*;
+import lombok.experimental.*;
+import lombok.extern.slf4j.*;
+
+/**
+ * Encodes screenshot attachments off the test thread.
+ *
+ * <p>
+ * The test thread only captures the screenshot; decoding, transforming via
+ * {@link StageEx#ATTACHEMENT_TRANSFORMER}, re-encoding and base64 encoding
+ * happen on a bounded executor. Meanwhile, the step gets a placeholder
+ * attachment, which is replaced by {@link #flush(ScenarioCaseModel)} when its
+ * scenario ends, hence only screenshots of running scenarios are held here.
+ * {@link #flush(ReportModel)} replaces any remaining ones before the report
+ * model is written.
+ * </p>
+ *
+ * <p>
+ * When the executor is saturated the test thread encodes by itself, thus
+ * applying back-pressure. Configurable via:
+ * <ul>
+ * <li>screenshot.encoders -- number of encoding threads, defaults to half of
+ * available processors</li>
+ * <li>screenshot.queue -- number of screenshots waiting for encoding, defaults
+ * to 16</li>
+ * </ul>
+ * </p>
+ */
+@UtilityClass
+@Slf4j
+public class ScreenshotAttachments {
+    private static final String                                PLACEHOLDER_PREFIX =
+        "pending-screenshot:";
+    private static final AtomicLong                            counter            =
+        new AtomicLong();
+    private static final ConcurrentMap<String, Future<String>> pending            =
+        new ConcurrentHashMap<>();
+    private static final ExecutorService                       encoders;
+
+    static {
+        val threads = getInteger("screenshot.encoders",
+            Math.max(1, getRuntime().availableProcessors() / 2));
+        val threadCounter = new AtomicInteger();
+        encoders = new ThreadPoolExecutor(threads, threads,
+            0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(getInteger("screenshot.queue", 16)),
+            runnable -> {
+                val thread = new Thread(runnable,
+                    "screenshot-encoder-" + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Attaches a placeholder to current step and schedules the encoding of
+     * specified screenshot.
+     *
+     * @param currentStep
+     *            the current step
+     * @param png
+     *            the screenshot, as captured
+     */
+    public static void attach(final CurrentStep currentStep, final byte[] png) {
+        val placeholder = PLACEHOLDER_PREFIX + counter.incrementAndGet();
+        pending.put(placeholder, encoders.submit(() -> encode(png)));
+        currentStep.addAttachment(Attachment.fromBase64(placeholder,
+            MediaType.PNG));
+    }
+
+    /**
+     * Discards all pending screenshots. To be used when there is no report
+     * model to flush into.
+     */
+    public static void discard() {
+        pending.values().forEach(future -> future.cancel(false));
+        pending.clear();
+    }
+
+    /**
+     * Waits for pending screenshots of specified scenario case and replaces
+     * their placeholders with the encoded screenshots. Screenshots failing to
+     * encode are removed from the scenario case.
+     *
+     * @param scenarioCase
+     *            the scenario case, after it ended
+     */
+    public static void flush(final ScenarioCaseModel scenarioCase) {
+        if (pending.isEmpty())
+            return;
+        scenarioCase.getSteps().forEach(ScreenshotAttachments::flush);
+    }
+
+    /**
+     * Waits for pending screenshots of specified report and replaces their
+     * placeholders with the encoded screenshots. Screenshots failing to encode
+     * are removed from the report.
+     *
+     * @param reportModel
+     *            the report model, before being written
+     */
+    public static void flush(final ReportModel reportModel) {
+        if (pending.isEmpty())
+            return;
+        log.trace("flushing screenshots of {}", reportModel.getClassName());
+        reportModel.getScenarios()
+            .forEach(scenario -> scenario.getScenarioCases()
+                .forEach(ScreenshotAttachments::flush));
+    }
+
+    private static String encode(final byte[] png) {
+        return encodeBase64String(Pipeline
+            .from(new ByteArrayInputStream(png))
+            .map(ATTACHEMENT_TRANSFORMER)
+            .into(new ByteArrayOutputStream(4096), "png")
+            .toByteArray());
+    }
+
+    private static void flush(final StepModel step) {
+        step.getAttachments().removeIf(attachment -> {
+            val future = pending.remove(attachment.getValue());
+            if (isNull(future))
+                return false;
+            try {
+                attachment.setValue(future.get());
+                return false;
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return true;
+            } catch (final ExecutionException | CancellationException e) {
+                log.error("failed encoding screenshot {}", e.toString());
+                return true;
+            }
+        });
+        if (nonNull(step.getNestedSteps()))
+            step.getNestedSteps().forEach(ScreenshotAttachments::flush);
+    }
+}
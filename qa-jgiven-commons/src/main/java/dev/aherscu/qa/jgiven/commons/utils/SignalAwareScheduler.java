@@ -0,0 +1,142 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.jgiven.commons.utils;
+
+import static java.lang.System.*;
+import static java.time.Duration.*;
+import static java.util.Objects.*;
+import static java.util.concurrent.TimeUnit.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import lombok.*;
+import lombok.extern.slf4j.*;
+import net.jodah.failsafe.*;
+import net.jodah.failsafe.function.*;
+import net.jodah.failsafe.util.concurrent.*;
+
+/**
+ * Failsafe scheduler running attempts on the calling thread, waiting between
+ * them as specified by the policies of the execution, unless a state change is
+ * signaled meanwhile via {@link StateChanges#signal()}.
+ *
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * SignalAwareScheduler.get(Failsafe.with(retryPolicy), () -&gt; ...)
+ * </pre>
+ *
+ * Policies, including their listeners, apply as with
+ * {@link FailsafeExecutor#get(CheckedSupplier)}.
+ * </p>
+ */
+@Slf4j
+final class SignalAwareScheduler implements Scheduler {
+    private final Queue<ScheduledAttempt<?>> scheduled =
+        new PriorityQueue<>();
+
+    private static final class ScheduledAttempt<T> extends FutureTask<T>
+        implements ScheduledFuture<T> {
+        private final long due;
+
+        ScheduledAttempt(final Callable<T> callable, final long delayNanos) {
+            super(callable);
+            this.due = nanoTime() + delayNanos;
+        }
+
+        @Override
+        public long getDelay(final TimeUnit unit) {
+            return unit.convert(due - nanoTime(), NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(final Delayed other) {
+            return Long.compare(getDelay(NANOSECONDS),
+                other.getDelay(NANOSECONDS));
+        }
+    }
+
+    /**
+     * Executes specified supplier with specified executor on the calling
+     * thread.
+     *
+     * @param <T>
+     *            type of result
+     * @param executor
+     *            the executor, configured with its policies
+     * @param supplier
+     *            the supplier
+     * @return the result of supplier
+     * @throws FailsafeException
+     *             if the supplier failed with a checked exception, or if
+     *             interrupted while waiting
+     */
+    static <T> T get(
+        final FailsafeExecutor<T> executor,
+        final CheckedSupplier<T> supplier) {
+        val scheduler = new SignalAwareScheduler();
+        val result = executor.with(scheduler).getAsync(supplier);
+        try {
+            scheduler.runUntil(result);
+            return result.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(true);
+            throw new FailsafeException(e);
+        } catch (final ExecutionException e) {
+            // NOTE same as synchronous Failsafe executions
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error)
+                throw (Error) e.getCause();
+            throw new FailsafeException(e.getCause());
+        }
+    }
+
+    @Override
+    public synchronized ScheduledFuture<?> schedule(
+        final Callable<?> callable,
+        final long delay,
+        final TimeUnit unit) {
+        val attempt = new ScheduledAttempt<>(callable, unit.toNanos(delay));
+        scheduled.add(attempt);
+        return attempt;
+    }
+
+    private synchronized ScheduledAttempt<?> next() {
+        return scheduled.poll();
+    }
+
+    private void runUntil(final Future<?> result)
+        throws InterruptedException {
+        long generation = StateChanges.generation();
+        while (!result.isDone()) {
+            val attempt = next();
+            if (isNull(attempt))
+                throw new IllegalStateException(
+                    "nothing scheduled for incomplete execution");
+            val delay = attempt.getDelay(NANOSECONDS);
+            if (delay > 0
+                && StateChanges.awaitAfter(generation, ofNanos(delay)))
+                log.trace("state changed, attempting immediately");
+            generation = StateChanges.generation();
+            attempt.run();
+        }
+    }
+}
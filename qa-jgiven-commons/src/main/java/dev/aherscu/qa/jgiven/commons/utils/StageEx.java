@@ -19,14 +19,11 @@ import static com.codahale.metrics.MetricRegistry.*;
 import static dev.aherscu.qa.jgiven.commons.utils.MetricReporterSuiteListener.*;
 import static dev.aherscu.qa.testing.utils.ImageUtils.*;
 import static dev.aherscu.qa.testing.utils.StringUtilsExtensions.*;
-import static java.lang.Long.*;
 import static java.lang.System.*;
-import static java.time.Duration.*;
 import static java.util.Objects.*;
-import static org.apache.commons.codec.binary.Base64.*;
 
-import java.io.*;
 import java.time.*;
+import java.time.temporal.*;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.function.*;
@@ -73,18 +70,21 @@ public class StageEx<SELF extends StageEx<?>> extends Stage<SELF> {
     protected static final Duration                   pollDelay, pollTimeout;
 
     static {
-        clickTimer = METRIC_REGISTRY.timer(name("click"));
-        sendKeysTimer = METRIC_REGISTRY.timer(name("sendKeys"));
-        scrollIntoViewTimer = METRIC_REGISTRY.timer(name("scrollIntoView"));
-        assertElementTimer = METRIC_REGISTRY.timer(name("assertElement"));
-        locateTimer = METRIC_REGISTRY.timer(name("locate"));
+        clickTimer = METRIC_REGISTRY.timer(name("click"),
+            HdrHistogramReservoir::timer);
+        sendKeysTimer = METRIC_REGISTRY.timer(name("sendKeys"),
+            HdrHistogramReservoir::timer);
+        scrollIntoViewTimer = METRIC_REGISTRY.timer(name("scrollIntoView"),
+            HdrHistogramReservoir::timer);
+        assertElementTimer = METRIC_REGISTRY.timer(name("assertElement"),
+            HdrHistogramReservoir::timer);
+        locateTimer = METRIC_REGISTRY.timer(name("locate"),
+            HdrHistogramReservoir::timer);
 
-        pollDelay = ofSeconds(parseLong(getProperty("poll.delay", "1")));
-        pollTimeout = ofSeconds(parseLong(getProperty("poll.timeout", "10")));
+        pollDelay = Polling.DEFAULT.maxDelay;
+        pollTimeout = Polling.DEFAULT.timeout;
 
-        log.debug("poll delay {} seconds; timeout {} seconds",
-            pollDelay.getSeconds(),
-            pollTimeout.getSeconds());
+        log.debug("polling {}", Polling.DEFAULT);
     }
 
     /**
@@ -112,7 +112,8 @@ public class StageEx<SELF extends StageEx<?>> extends Stage<SELF> {
     }
 
     /**
-     * Delayed screenshot.
+     * Delayed screenshot. The screenshot is encoded in background, and replaces
+     * its placeholder attachment before the report is written.
      *
      * @param somethingThatTakesScreenshot
      *            a WebDriver able to take screenshots
@@ -130,16 +131,9 @@ public class StageEx<SELF extends StageEx<?>> extends Stage<SELF> {
 
         ThreadUtils.sleep(delayMs);
 
-        currentStep.addAttachment(Attachment
-            .fromBase64(
-                encodeBase64String(Pipeline
-                    .from(new ByteArrayInputStream(
-                        somethingThatTakesScreenshot
-                            .getScreenshotAs(OutputType.BYTES)))
-                    .map(ATTACHEMENT_TRANSFORMER)
-                    .into(new ByteArrayOutputStream(4096), "png")
-                    .toByteArray()),
-                MediaType.PNG));
+        // NOTE only capturing here; encoding happens in background
+        ScreenshotAttachments.attach(currentStep,
+            somethingThatTakesScreenshot.getScreenshotAs(OutputType.BYTES));
     }
 
     /**
@@ -170,7 +164,8 @@ public class StageEx<SELF extends StageEx<?>> extends Stage<SELF> {
     }
 
     /**
-     * Delayed screenshot.
+     * Delayed screenshot. The screenshot is encoded in background, and replaces
+     * its placeholder attachment before the report is written.
      *
      * @param driver
      *            a WebDriver able to take screenshots
@@ -192,10 +187,17 @@ public class StageEx<SELF extends StageEx<?>> extends Stage<SELF> {
     /**
      * Configures the retry policy. Configurable via:
      * <ul>
-     * <li>poll.delay -- defaults to 1 second</li>
+     * <li>poll.initial.delay.ms -- defaults to 100 milliseconds</li>
+     * <li>poll.delay -- maximum delay, defaults to 1 second</li>
+     * <li>poll.backoff.factor -- defaults to 2</li>
+     * <li>poll.jitter -- defaults to 0.1</li>
      * <li>poll.timeout -- defaults to 10 seconds</li>
      * </ul>
      * <p>
+     * {@link #retry(Callable)} and derived methods run through this policy, but
+     * wake up early from its delays upon {@link StateChanges#signal()}.
+     * </p>
+     * <p>
      * <strong>IMPORTANT:</strong> if you override this method, you should
      * ensure that other policy properties are setup properly, either by calling
      * this implementation via {@code super.configureRetryPolicy()}, or by other
@@ -204,9 +206,8 @@ public class StageEx<SELF extends StageEx<?>> extends Stage<SELF> {
      */
     @BeforeScenario
     protected void beforeScenarioConfigurePolling() {
-        retryPolicy
+        withPollingDelays(retryPolicy)
             .withMaxRetries(-1)
-            .withDelay(pollDelay)
             .withMaxDuration(pollTimeout)
             .onRetry(
                 e -> log.trace("retrying due to {}", e.toString()))
@@ -319,9 +320,8 @@ public class StageEx<SELF extends StageEx<?>> extends Stage<SELF> {
         final By locator,
         final SearchContext context) {
         return Failsafe
-            .with(new RetryPolicy<List<WebElement>>()
+            .with(withPollingDelays(new RetryPolicy<List<WebElement>>())
                 .withMaxRetries(-1)
-                .withDelay(pollDelay)
                 .withMaxDuration(pollTimeout)
                 .onRetriesExceeded(
                     e -> log.trace("retries exceeded for {}", e.toString()))
@@ -332,7 +332,8 @@ public class StageEx<SELF extends StageEx<?>> extends Stage<SELF> {
     }
 
     /**
-     * Repeatedly executes specified callable, per {@link #retryPolicy}.
+     * Repeatedly executes specified callable, per {@link #retryPolicy},
+     * attempting again as soon as a state change is signaled.
      *
      * @param callable
      *            the callable
@@ -342,9 +343,33 @@ public class StageEx<SELF extends StageEx<?>> extends Stage<SELF> {
     // to be used in cases where application popups, or other hiccups occur
     @Hidden
     protected final SELF retry(final Callable<SELF> callable) {
-        return Failsafe
-            .with(retryPolicy)
-            .get(callable::call);
+        return SignalAwareScheduler.get(Failsafe.with(retryPolicy),
+            callable::call);
+    }
+
+    /**
+     * Configures specified policy with {@link Polling#DEFAULT} delays. State
+     * changes cut these short only when executed via {@link #retry(Callable)}.
+     *
+     * @param policy
+     *            the policy to configure
+     * @param <R>
+     *            type of result
+     * @return the policy
+     */
+    protected static <R> RetryPolicy<R> withPollingDelays(
+        final RetryPolicy<R> policy) {
+        val polling = Polling.DEFAULT;
+        if (polling.backoffFactor > 1
+            && polling.initialDelay.compareTo(polling.maxDelay) < 0)
+            policy.withBackoff(polling.initialDelay.toMillis(),
+                polling.maxDelay.toMillis(), ChronoUnit.MILLIS,
+                polling.backoffFactor);
+        else
+            policy.withDelay(polling.maxDelay);
+        if (polling.jitter > 0 && polling.jitter <= 1)
+            policy.withJitter(polling.jitter);
+        return policy;
     }
 
     /**
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.jgiven.commons.utils;
+
+import static java.lang.Long.*;
+import static java.lang.System.*;
+
+import java.time.*;
+import java.util.concurrent.atomic.*;
+
+import lombok.*;
+import lombok.experimental.*;
+
+/**
+ * Signals changes of observed state to waiting pollers, which then re-evaluate
+ * their assertions immediately, instead of waiting for their next delay to
+ * elapse.
+ *
+ * <p>
+ * Sources of state, such as queue consumers or file watchers, should call
+ * {@link #signal()} whenever something changed. Spurious signals only cause an
+ * extra evaluation, hence sources need not know who is waiting on what.
+ * </p>
+ *
+ * <p>
+ * Signals are coalesced: signaling costs an atomic increment unless someone is
+ * waiting, and a woken poller lingers for poll.coalescing.ms, defaulting to 10
+ * milliseconds, so that a burst of signals, such as a stream of message
+ * deliveries, causes a single re-evaluation instead of one per signal.
+ * </p>
+ */
+@UtilityClass
+public class StateChanges {
+    /**
+     * Time a woken poller lingers before re-evaluating.
+     */
+    static final Duration              COALESCING =
+        Duration.ofMillis(parseLong(getProperty("poll.coalescing.ms", "10")));
+    private static final Object        MONITOR    = new Object();
+    private static final AtomicLong    generation = new AtomicLong();
+    private static final AtomicInteger waiters    = new AtomicInteger();
+
+    /**
+     * Wakes all waiting pollers, if any.
+     */
+    public static void signal() {
+        generation.incrementAndGet();
+        // NOTE pollers register before checking the generation, hence none
+        // is missed
+        if (waiters.get() > 0)
+            synchronized (MONITOR) {
+                MONITOR.notifyAll();
+            }
+    }
+
+    /**
+     * @return the current generation, to be passed later to
+     *         {@link #awaitAfter(long, Duration)}
+     */
+    static long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Waits until a change is signaled, or specified timeout elapses. Returns
+     * almost immediately if a change was signaled since specified generation
+     * was obtained. Upon a change, lingers for {@link #COALESCING}, within
+     * specified timeout.
+     *
+     * @param since
+     *            a generation previously obtained via {@link #generation()}
+     * @param timeout
+     *            maximum time to wait
+     * @return true if a change was signaled
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    static boolean awaitAfter(final long since, final Duration timeout)
+        throws InterruptedException {
+        val deadline = nanoTime() + timeout.toNanos();
+        waiters.incrementAndGet();
+        try {
+            synchronized (MONITOR) {
+                long remaining;
+                while (generation.get() == since
+                    && (remaining = deadline - nanoTime()) > 0)
+                    MONITOR.wait(remaining / 1_000_000,
+                        (int) (remaining % 1_000_000));
+            }
+        } finally {
+            waiters.decrementAndGet();
+        }
+
+        if (generation.get() == since)
+            return false;
+
+        val lingering = Math.min(COALESCING.toNanos(), deadline - nanoTime());
+        if (lingering > 0)
+            Thread.sleep(lingering / 1_000_000, (int) (lingering % 1_000_000));
+        return true;
+    }
+}
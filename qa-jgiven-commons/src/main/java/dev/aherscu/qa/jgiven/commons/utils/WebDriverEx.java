@@ -16,7 +16,9 @@
 package dev.aherscu.qa.jgiven.commons.utils;
 
 import static java.lang.Thread.*;
+import static java.util.Collections.*;
 import static java.util.Objects.*;
+import static java.util.stream.Collectors.*;
 import static org.apache.commons.lang3.StringUtils.*;
 
 import java.lang.reflect.*;
@@ -189,6 +191,23 @@ public class WebDriverEx {
      */
     public static final Multimap<SessionName, WebDriverSessionInfo> remoteSessions     =
         Multimaps.synchronizedSetMultimap(HashMultimap.create());
+    private static final String                                     STATES_SCRIPT      =
+        "var names = arguments[0], scroll = arguments[1],"
+            + " elements = arguments[2];"
+            + "if (scroll && elements.length) elements[0].scrollIntoView();"
+            + "return elements.map(function (e) {"
+            + " var r = e.getBoundingClientRect(),"
+            + "  s = window.getComputedStyle(e), a = {};"
+            + " names.forEach(function (n) { a[n] = e.getAttribute(n); });"
+            + " return {"
+            + "  displayed: r.width > 0 && r.height > 0"
+            + "   && s.visibility !== 'hidden' && s.display !== 'none',"
+            + "  enabled: !e.disabled,"
+            + "  text: (e.innerText || e.textContent || '').trim(),"
+            + "  x: r.left + window.pageXOffset, y: r.top + window.pageYOffset,"
+            + "  width: r.width, height: r.height,"
+            + "  attributes: a };"
+            + "});";
     /**
      * Original capabilities used to initiate this web driver; might be null.
      */
@@ -223,6 +242,7 @@ public class WebDriverEx {
 
         // ISSUE getXXXX and isXXXX methods all do Selenium roundtrips
         // increasing chance of failures and execution time
+        // -- see statesOf for retrieving these in a single roundtrip
         // MessageFormat
         // .format("element <{0}> containing \"{1}\" which {2} displayed",
         // element.getTagName(),
@@ -291,18 +311,7 @@ public class WebDriverEx {
             return;
         }
 
-        val sessionNameWithTimestamp = SessionName.from(name.toString());
-        val sessionId = driver.asRemote().getSessionId();
-
-        log.debug("registering remote web driver session id {} for {}",
-            sessionId.toString(), sessionNameWithTimestamp);
-
-        log.debug("registered new session {}",
-            remoteSessions.put(sessionNameWithTimestamp,
-                WebDriverSessionInfo.builder()
-                    .sessionId(sessionId)
-                    .capabilities(driver.originalCapabilities)
-                    .build()));
+        driver.registerAs(SessionName.from(name.toString()));
     }
 
     /**
@@ -462,6 +471,32 @@ public class WebDriverEx {
         return type.isInstance(driver);
     }
 
+    /**
+     * Registers this remote Web Driver session identifier in
+     * {@link #remoteSessions}, mapped to specified test session name.
+     *
+     * <p>
+     * Useful when a session is reused by another test than the one that created
+     * it.
+     * </p>
+     *
+     * @param sessionName
+     *            the test session name
+     */
+    public void registerAs(final SessionName sessionName) {
+        val sessionId = asRemote().getSessionId();
+
+        log.debug("registering remote web driver session id {} for {}",
+            sessionId.toString(), sessionName);
+
+        log.debug("registered new session {}",
+            remoteSessions.put(sessionName,
+                WebDriverSessionInfo.builder()
+                    .sessionId(sessionId)
+                    .capabilities(originalCapabilities)
+                    .build()));
+    }
+
     /**
      * Quits the driver swallowing exceptions.
      */
@@ -501,6 +536,68 @@ public class WebDriverEx {
         return element;
     }
 
+    /**
+     * Scrolls an element into view and retrieves its state, all in a single
+     * round-trip.
+     *
+     * @param element
+     *            the element
+     * @param attributes
+     *            names of attributes to retrieve
+     * @return state of element
+     * @see #scrollIntoView(WebElement)
+     * @see #statesOf(List, String...)
+     */
+    public ElementState scrollIntoViewAndStateOf(
+        final WebElement element,
+        final String... attributes) {
+        return statesOf(true, singletonList(element), attributes).get(0);
+    }
+
+    /**
+     * Retrieves the state of specified elements in a single JavaScript
+     * round-trip, instead of one round-trip per getter per element.
+     *
+     * <p>
+     * Falls back to standard Selenium getters on drivers not supporting
+     * JavaScript, such as WinAppDriver.
+     * </p>
+     *
+     * @param elements
+     *            the elements
+     * @param attributes
+     *            names of attributes to retrieve
+     * @return states of elements, in same order
+     * @throws StaleElementReferenceException
+     *             if any of the elements is no longer attached to the DOM
+     */
+    public List<ElementState> statesOf(
+        final List<? extends WebElement> elements,
+        final String... attributes) {
+        return statesOf(false, elements, attributes);
+    }
+
+    /**
+     * Removes this remote Web Driver session identifier from
+     * {@link #remoteSessions}, for specified test session name.
+     *
+     * @param sessionName
+     *            the test session name
+     */
+    public void unregisterFrom(final SessionName sessionName) {
+        val sessionId = asRemote().getSessionId();
+
+        log.debug("unregistering remote web driver session id {} from {}",
+            sessionId, sessionName);
+
+        // NOTE views of synchronized multimaps must be synchronized manually
+        synchronized (remoteSessions) {
+            remoteSessions.get(sessionName)
+                .removeIf(sessionInfo -> sessionId
+                    .equals(sessionInfo.sessionId));
+        }
+    }
+
     /**
      * Retrieves Web context identifier of running mobile application.
      *
@@ -536,4 +633,40 @@ public class WebDriverEx {
                 .orElseThrow(
                     () -> new TestRuntimeException("no webview available")));
     }
+
+    @SuppressWarnings("unchecked")
+    private List<ElementState> statesOf(
+        final boolean scroll,
+        final List<? extends WebElement> elements,
+        final String... attributes) {
+        if (elements.isEmpty())
+            return emptyList();
+
+        val names = Arrays.asList(attributes);
+        if (driver instanceof WindowsDriver
+            || !(driver instanceof JavascriptExecutor))
+            return elements.stream()
+                .map(element -> ElementState.of(element, names))
+                .collect(toList());
+
+        log.trace("retrieving state of {} elements", elements.size());
+        return ((List<Map<String, Object>>) asJavaScriptExecutor()
+            .executeScript(STATES_SCRIPT, names, scroll, elements))
+            .stream()
+            .map(state -> ElementState.builder()
+                .displayed((Boolean) state.get("displayed"))
+                .enabled((Boolean) state.get("enabled"))
+                .text((String) state.get("text"))
+                .rect(new Rectangle(
+                    intOf(state.get("x")), intOf(state.get("y")),
+                    intOf(state.get("height")), intOf(state.get("width"))))
+                .attributes(unmodifiableMap(
+                    (Map<String, String>) state.get("attributes")))
+                .build())
+            .collect(toList());
+    }
+
+    private static int intOf(final Object number) {
+        return ((Number) number).intValue();
+    }
 }
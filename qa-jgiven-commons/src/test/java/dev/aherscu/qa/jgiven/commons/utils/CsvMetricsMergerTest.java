@@ -0,0 +1,57 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.jgiven.commons.utils;
+
+import static java.nio.file.Files.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.nio.file.*;
+import java.util.*;
+
+import org.testng.annotations.*;
+
+import lombok.*;
+
+public class CsvMetricsMergerTest {
+
+    @Test
+    @SneakyThrows
+    public void shouldMergeByTimestampAndSummarize() {
+        val directory = createTempDirectory("metrics");
+        val foo = writeString(directory.resolve("foo.csv"),
+            "t,count,max\n1,1,5\n3,2,7\n5,3,6\n");
+        val goo = writeString(directory.resolve("goo.csv"),
+            "t,count,max\n2,1,1\n4,2,2\n");
+
+        new CsvMetricsMerger(Arrays.asList(foo, goo))
+            .merge(directory.resolve("all.csv"),
+                directory.resolve("summary.csv"));
+
+        assertThat(readAllLines(directory.resolve("all.csv")),
+            contains("metric,t,count,max",
+                "foo,1,1,5",
+                "goo,2,1,1",
+                "foo,3,2,7",
+                "goo,4,2,2",
+                "foo,5,3,6"));
+        assertThat(readAllLines(directory.resolve("summary.csv")),
+            hasItems("metric,field,samples,min,max,last",
+                "foo,max,3,5.0,7.0,6",
+                "goo,count,2,1.0,2.0,2"));
+    }
+}
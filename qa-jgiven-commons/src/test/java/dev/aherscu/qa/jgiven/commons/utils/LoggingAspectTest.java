@@ -0,0 +1,131 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.jgiven.commons.utils;
+
+import static dev.aherscu.qa.jgiven.commons.utils.MetricReporterSuiteListener.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.atomic.*;
+
+import org.aspectj.lang.*;
+import org.slf4j.*;
+import org.testng.annotations.*;
+
+import ch.qos.logback.classic.*;
+import ch.qos.logback.classic.Logger;
+import lombok.*;
+
+public class LoggingAspectTest {
+    private final Logger logger =
+        (Logger) LoggerFactory.getLogger(LoggingAspect.class);
+    private Level        previousLevel;
+
+    private static final class CountingArgument {
+        final AtomicInteger formatted = new AtomicInteger();
+
+        @Override
+        public String toString() {
+            formatted.incrementAndGet();
+            return "counting";
+        }
+    }
+
+    @SneakyThrows
+    private static ProceedingJoinPoint joinPoint(
+        final Class<?> declaringType,
+        final String name,
+        final Object... args) {
+        val signature = mock(Signature.class);
+        when(signature.getDeclaringTypeName())
+            .thenReturn(declaringType.getName());
+        when(signature.getName()).thenReturn(name);
+        val joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getArgs()).thenReturn(args);
+        return joinPoint;
+    }
+
+    @BeforeClass
+    public void enableTracing() {
+        previousLevel = logger.getLevel();
+        logger.setLevel(Level.TRACE);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void restoreTracing() {
+        logger.setLevel(previousLevel);
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldTraceAllInvocationsWithoutSampling() {
+        val argument = new CountingArgument();
+        val aspect = new LoggingAspect(1, false);
+        val joinPoint = joinPoint(getClass(), "traced_step", argument);
+
+        for (int i = 0; i < 10; i++)
+            aspect.aroundStepMethod(joinPoint);
+
+        assertThat(argument.formatted.get(), is(10));
+        verify(joinPoint, times(10)).proceed();
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldSkipFormattingOfUnsampledInvocations() {
+        val argument = new CountingArgument();
+        val aspect = new LoggingAspect(Integer.MAX_VALUE, false);
+        val joinPoint = joinPoint(getClass(), "sampled_step", argument);
+
+        for (int i = 0; i < 10; i++)
+            aspect.aroundStepMethod(joinPoint);
+
+        // NOTE each invocation is traced with a probability of 1 in 2^31
+        assertThat(argument.formatted.get(), is(0));
+        verify(joinPoint, times(10)).proceed();
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldTimeStepsByDeclaringTypeAndMethod() {
+        val aspect = new LoggingAspect(Integer.MAX_VALUE, true);
+
+        aspect.aroundStepMethod(joinPoint(String.class, "timed_step"));
+        aspect.aroundStepMethod(joinPoint(Integer.class, "timed_step"));
+        aspect.aroundStepMethod(joinPoint(Integer.class, "timed_step"));
+
+        assertThat(METRIC_REGISTRY.getTimers(),
+            allOf(hasKey("step.java.lang.String.timed_step"),
+                hasKey("step.java.lang.Integer.timed_step")));
+        assertThat(METRIC_REGISTRY.timer("step.java.lang.String.timed_step")
+            .getCount(), is(1L));
+        assertThat(METRIC_REGISTRY.timer("step.java.lang.Integer.timed_step")
+            .getCount(), is(2L));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldNotTimeWithoutTiming() {
+        new LoggingAspect(Integer.MAX_VALUE, false)
+            .aroundStepMethod(joinPoint(Long.class, "untimed_step"));
+
+        assertThat(METRIC_REGISTRY.getTimers(),
+            not(hasKey("step.java.lang.Long.untimed_step")));
+    }
+}
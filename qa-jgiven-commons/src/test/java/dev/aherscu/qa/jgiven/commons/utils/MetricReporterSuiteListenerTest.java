@@ -17,8 +17,14 @@
 package dev.aherscu.qa.jgiven.commons.utils;
 
 import static dev.aherscu.qa.jgiven.commons.utils.MetricReporterSuiteListener.*;
+import static java.nio.file.Files.*;
+import static java.util.concurrent.TimeUnit.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
 import static org.mockito.Mockito.*;
 
+import java.nio.file.*;
+
 import org.testng.*;
 import org.testng.annotations.*;
 
@@ -38,6 +44,13 @@ public class MetricReporterSuiteListenerTest {
         try (val c = METRIC_REGISTRY.timer("boo").time()) {
             // do nothing, here just to create another metric
         }
+        try (val c = METRIC_REGISTRY
+            .timer("hoo", HdrHistogramReservoir::timer).time()) {
+            // do nothing, here just to create a percentiles metric
+        }
+        val joo = METRIC_REGISTRY.timer("joo", HdrHistogramReservoir::timer);
+        joo.update(1500, MILLISECONDS);
+        joo.update(2, MILLISECONDS);
     }
 
     public void shouldAggregateMetricsOnFinish() {
@@ -50,4 +63,21 @@ public class MetricReporterSuiteListenerTest {
         // TODO: verify that created an aggregated CSV of foo and goo
         // meanwhile verifying manually is good enough and works :)
     }
+
+    @SneakyThrows
+    public void shouldExportPercentilesOnFinish() {
+        val testSuite = mock(ISuite.class);
+        when(testSuite.getParameter("target-directory"))
+            .thenReturn("target/metrics");
+
+        new MetricReporterSuiteListener().onFinish(testSuite);
+
+        assertThat(readString(Paths.get("target/metrics/percentiles.json")),
+            allOf(containsString("\"hoo\""), not(containsString("foo"))));
+        assertThat(readString(Paths.get("target/metrics/percentiles.prom")),
+            allOf(containsString("hoo_seconds_count{thread=\""),
+                containsString("joo_seconds_count{thread=\"all\"} 2"),
+                containsString("joo_seconds_sum{thread=\"all\"} 1.502"),
+                not(containsString("_count "))));
+    }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.jgiven.commons.utils;
+
+import static java.nio.charset.StandardCharsets.*;
+import static org.apache.commons.codec.binary.Base64.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.awt.image.*;
+import java.io.*;
+
+import javax.imageio.*;
+
+import org.hamcrest.*;
+import org.mockito.*;
+import org.testng.annotations.*;
+
+import com.tngtech.jgiven.*;
+import com.tngtech.jgiven.attachment.*;
+import com.tngtech.jgiven.report.model.*;
+
+import lombok.*;
+
+public class ScreenshotAttachmentsTest {
+    @SneakyThrows
+    private static byte[] png() {
+        val bytes = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(2, 2, BufferedImage.TYPE_INT_RGB),
+            "png", bytes);
+        return bytes.toByteArray();
+    }
+
+    private static StepModel stepWithScreenshotOf(final byte[] screenshot) {
+        val currentStep = mock(CurrentStep.class);
+        ScreenshotAttachments.attach(currentStep, screenshot);
+        val attachment = ArgumentCaptor.forClass(Attachment.class);
+        verify(currentStep).addAttachment(attachment.capture());
+        val step = new StepModel();
+        step.addAttachment(attachment.getValue());
+        return step;
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldReplacePlaceholderWithEncodedScreenshot() {
+        val step = stepWithScreenshotOf(png());
+        assertThat(step.getAttachments().get(0).getValue(),
+            Matchers.startsWith("pending-screenshot:"));
+
+        val scenarioCase = new ScenarioCaseModel();
+        scenarioCase.addStep(step);
+        ScreenshotAttachments.flush(scenarioCase);
+
+        assertThat(step.getAttachments(), hasSize(1));
+        assertThat(ImageIO.read(new ByteArrayInputStream(decodeBase64(
+            step.getAttachments().get(0).getValue()))), notNullValue());
+    }
+
+    @Test
+    public void shouldRemoveScreenshotsFailingToEncode() {
+        val step = stepWithScreenshotOf("not a png".getBytes(UTF_8));
+
+        val scenarioCase = new ScenarioCaseModel();
+        scenarioCase.addStep(step);
+        ScreenshotAttachments.flush(scenarioCase);
+
+        assertThat(step.getAttachments(), empty());
+    }
+}
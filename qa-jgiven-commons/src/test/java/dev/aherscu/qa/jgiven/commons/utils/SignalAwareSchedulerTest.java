@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.jgiven.commons.utils;
+
+import static java.time.Duration.*;
+import static java.util.concurrent.CompletableFuture.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.io.*;
+import java.util.concurrent.atomic.*;
+
+import org.testng.annotations.*;
+
+import dev.aherscu.qa.testing.utils.*;
+import lombok.*;
+import net.jodah.failsafe.*;
+
+public class SignalAwareSchedulerTest {
+    private static RetryPolicy<Object> retryPolicy(
+        final AtomicInteger retries) {
+        return new RetryPolicy<>()
+            .withMaxRetries(-1)
+            .withDelay(ofSeconds(5))
+            .withMaxDuration(ofSeconds(10))
+            .onRetry(e -> retries.incrementAndGet())
+            .handle(AssertionError.class);
+    }
+
+    @Test
+    public void shouldRetryImmediatelyUponStateChange() {
+        val ready = new AtomicBoolean();
+        val retries = new AtomicInteger();
+        runAsync(() -> {
+            ThreadUtils.sleep(200);
+            ready.set(true);
+            StateChanges.signal();
+        });
+
+        val started = System.nanoTime();
+        assertThat(SignalAwareScheduler.get(
+            Failsafe.with(retryPolicy(retries)), () -> {
+                if (!ready.get())
+                    throw new AssertionError("not yet");
+                return "done";
+            }), is("done"));
+
+        assertThat(ofNanos(System.nanoTime() - started),
+            lessThan(ofSeconds(5)));
+        assertThat(retries.get(), is(1));
+    }
+
+    @Test
+    public void shouldGiveUpPerPolicy() {
+        val exceeded = new AtomicBoolean();
+        val attempts = new AtomicInteger();
+        try {
+            SignalAwareScheduler.get(Failsafe.with(new RetryPolicy<>()
+                .withMaxRetries(2)
+                .withDelay(ofMillis(10))
+                .onRetriesExceeded(e -> exceeded.set(true))
+                .handle(AssertionError.class)), () -> {
+                    attempts.incrementAndGet();
+                    throw new AssertionError("never");
+                });
+        } catch (final AssertionError e) {
+            assertThat(e.getMessage(), is("never"));
+        }
+
+        assertThat(attempts.get(), is(3));
+        assertThat(exceeded.get(), is(true));
+    }
+
+    @Test(expectedExceptions = FailsafeException.class)
+    public void shouldWrapCheckedFailures() {
+        SignalAwareScheduler.get(Failsafe.with(retryPolicy(new AtomicInteger())),
+            () -> {
+                throw new IOException("not retried");
+            });
+    }
+}
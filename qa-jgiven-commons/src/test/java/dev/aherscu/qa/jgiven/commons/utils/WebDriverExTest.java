@@ -18,8 +18,11 @@ package dev.aherscu.qa.jgiven.commons.utils;
 
 import static dev.aherscu.qa.jgiven.commons.utils.WebDriverEx.*;
 import static java.lang.Boolean.*;
+import static java.util.Arrays.*;
+import static java.util.Collections.*;
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
 import static org.openqa.selenium.remote.CapabilityType.*;
 
 import java.lang.reflect.*;
@@ -29,11 +32,13 @@ import java.util.Optional;
 
 import org.openqa.selenium.*;
 import org.openqa.selenium.chrome.*;
+import org.openqa.selenium.remote.*;
 import org.testng.annotations.*;
 
 import com.google.common.collect.*;
 
 import dev.aherscu.qa.testing.utils.*;
+import lombok.*;
 import lombok.extern.slf4j.*;
 import net.jodah.failsafe.*;
 
@@ -78,6 +83,62 @@ public class WebDriverExTest {
             is("new PointerEvent(\"pointerdown\",{\"bubbles\":true})"));
     }
 
+    @SuppressWarnings("static-method")
+    public void shouldFallBackToGettersWithoutJavaScript() {
+        val element = mock(WebElement.class);
+        when(element.isDisplayed()).thenReturn(true);
+        when(element.getText()).thenReturn("hello");
+        when(element.getRect()).thenReturn(new Rectangle(1, 2, 3, 4));
+        when(element.getAttribute("id")).thenReturn("greeting");
+
+        assertThat(
+            new WebDriverEx(mock(WebDriver.class), new MutableCapabilities())
+                .statesOf(singletonList(element), "id"),
+            contains(ElementState.builder()
+                .displayed(true)
+                .enabled(false)
+                .text("hello")
+                .rect(new Rectangle(1, 2, 3, 4))
+                .attributes(singletonMap("id", "greeting"))
+                .build()));
+    }
+
+    @SuppressWarnings("static-method")
+    public void shouldRetrieveStatesInSingleRoundtrip() {
+        val driver = mock(RemoteWebDriver.class);
+        when(driver.executeScript(anyString(), any(), any(), any()))
+            .thenReturn(asList(
+                ImmutableMap.of(
+                    "displayed", true, "enabled", true, "text", "first",
+                    "x", 1L, "y", 2L, "width", 4.5, "height", 3L,
+                    "attributes", singletonMap("id", "a")),
+                ImmutableMap.of(
+                    "displayed", false, "enabled", false, "text", "",
+                    "x", 0L, "y", 0L, "width", 0L, "height", 0L,
+                    "attributes", singletonMap("id", null))));
+
+        val states = new WebDriverEx(driver, new MutableCapabilities())
+            .statesOf(asList(mock(WebElement.class), mock(WebElement.class)),
+                "id");
+
+        verify(driver, times(1))
+            .executeScript(anyString(), any(), any(), any());
+        assertThat(states, hasSize(2));
+        assertThat(states.get(0).rect, is(new Rectangle(1, 2, 3, 4)));
+        assertThat(states.get(0).attribute("id"), is("a"));
+        assertThat(states.get(1).displayed, is(false));
+        assertThat(states.get(1).attribute("id"), is(nullValue()));
+    }
+
+    @SuppressWarnings("static-method")
+    public void shouldNotRoundtripForNoElements() {
+        val driver = mock(RemoteWebDriver.class);
+
+        assertThat(new WebDriverEx(driver, new MutableCapabilities())
+            .statesOf(emptyList()), is(empty()));
+        verifyNoInteractions(driver);
+    }
+
     @Test(enabled = true) // just an experiment
     public void shouldRetry() {
         Failsafe.with(
@@ -17,6 +17,7 @@
 package dev.aherscu.qa.jgiven.elasticsearch.steps;
 
 import java.util.function.*;
+import java.util.stream.*;
 
 import com.tngtech.jgiven.annotation.*;
 
@@ -24,6 +25,7 @@ import co.elastic.clients.elasticsearch.*;
 import co.elastic.clients.elasticsearch.core.*;
 import dev.aherscu.qa.jgiven.commons.steps.*;
 import dev.aherscu.qa.jgiven.elasticsearch.model.*;
+import dev.aherscu.qa.jgiven.elasticsearch.utils.*;
 import lombok.*;
 import lombok.extern.slf4j.*;
 
@@ -31,7 +33,12 @@ import lombok.extern.slf4j.*;
 public class ElasticSearchActions<T, TDocument, SELF extends ElasticSearchActions<T, TDocument, SELF>>
     extends GenericActions<ElasticSearchScenarioType<TDocument>, SELF> {
     @ProvidedScenarioState
-    protected final ThreadLocal<IndexResponse> response = new ThreadLocal<>();
+    protected final ThreadLocal<IndexResponse> response       =
+        new ThreadLocal<>();
+    // NOTE: whether written documents might not be searchable yet
+    @ProvidedScenarioState
+    protected final ThreadLocal<Boolean>       refreshPending =
+        ThreadLocal.withInitial(() -> false);
     @ExpectedScenarioState
     protected ThreadLocal<String>              index;
     @ExpectedScenarioState
@@ -41,6 +48,35 @@ public class ElasticSearchActions<T, TDocument, SELF extends ElasticSearchAction
     @ExpectedScenarioState
     protected ElasticsearchClient              elasticsearchClient;
 
+    /**
+     * Indexes documents in concurrent bulk requests, and refreshes the index
+     * once all were indexed.
+     *
+     * @param documents
+     *            the documents
+     * @param indexedBy
+     *            extracts the document id
+     * @return {@link #self()}
+     * @throws IllegalStateException
+     *             if some documents failed to index
+     * @see BulkIndexer
+     */
+    public SELF adding_documents(
+        @Hidden final Stream<TDocument> documents,
+        @Hidden final Function<TDocument, String> indexedBy) {
+        try (val indexer = BulkIndexer.<TDocument> builder()
+            .client(elasticsearchClient)
+            .index(index.get())
+            .idBy(indexedBy)
+            .build()) {
+            val result = indexer.index(documents);
+            if (result.getFailed() > 0)
+                throw new IllegalStateException(
+                    "failed to index " + result.getFailed() + " documents");
+        }
+        return self();
+    }
+
     @SneakyThrows
     public SELF adding_single_document(
         final TDocument document,
@@ -51,6 +87,7 @@ public class ElasticSearchActions<T, TDocument, SELF extends ElasticSearchAction
             .index(index.get())
             .id(indexedBy.apply(document))
             .document(document)));
+        refreshPending.set(true);
 
         return self();
     }
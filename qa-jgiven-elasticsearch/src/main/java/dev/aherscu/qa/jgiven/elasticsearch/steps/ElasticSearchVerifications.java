@@ -16,7 +16,10 @@
 
 package dev.aherscu.qa.jgiven.elasticsearch.steps;
 
+import static dev.aherscu.qa.testing.utils.StringUtilsExtensions.*;
+
 import java.util.*;
+import java.util.concurrent.atomic.*;
 import java.util.function.*;
 import java.util.stream.*;
 
@@ -33,14 +36,27 @@ import co.elastic.clients.util.*;
 import dev.aherscu.qa.jgiven.commons.steps.*;
 import dev.aherscu.qa.jgiven.elasticsearch.formatters.*;
 import dev.aherscu.qa.jgiven.elasticsearch.model.*;
+import dev.aherscu.qa.jgiven.elasticsearch.utils.*;
+import lombok.*;
 import lombok.extern.slf4j.*;
 
 @Slf4j
 public class ElasticSearchVerifications<T, TDocument, SELF extends ElasticSearchVerifications<T, TDocument, SELF>>
     extends GenericVerifications<ElasticSearchScenarioType<TDocument>, SELF> {
+    /**
+     * Maximum number of hits attached per search.
+     */
+    public static final int                       MAX_ATTACHED_HITS     = 20;
+    /**
+     * Maximum length of each attached hit.
+     */
+    public static final int                       MAX_ATTACHMENT_LENGTH = 1000;
+
     @ExpectedScenarioState
     protected ThreadLocal<IndexResponse>          response;
     @ExpectedScenarioState
+    protected ThreadLocal<Boolean>                refreshPending;
+    @ExpectedScenarioState
     protected ThreadLocal<String>                 index;
     @ExpectedScenarioState
     protected ThreadLocal<Class<TDocument>>       documentType;
@@ -52,6 +68,16 @@ public class ElasticSearchVerifications<T, TDocument, SELF extends ElasticSearch
     @ExpectedScenarioState
     protected ElasticsearchClient                 elasticsearchClient;
 
+    /**
+     * Matches a document by its id. Getting by id is real-time, hence documents
+     * written by previous actions are visible without refreshing.
+     *
+     * @param id
+     *            the document id
+     * @param matcher
+     *            matcher of converted document
+     * @return {@link #self()}
+     */
     public SELF the_document(
         final String id,
         final Matcher<T> matcher) {
@@ -64,6 +90,25 @@ public class ElasticSearchVerifications<T, TDocument, SELF extends ElasticSearch
             matcher);
     }
 
+    /**
+     * Matches all hits of specified query, streaming these page by page via
+     * {@link SearchAfterStream}. Only the first {@value #MAX_ATTACHED_HITS}
+     * hits are attached, each abbreviated to {@value #MAX_ATTACHMENT_LENGTH}
+     * characters.
+     *
+     * <p>
+     * Documents written by previous actions are made searchable by a single
+     * refresh before searching, hence the search usually succeeds on first
+     * attempt; it is repeated only while waiting for documents written by
+     * others.
+     * </p>
+     *
+     * @param query
+     *            the query
+     * @param matcher
+     *            matcher of converted hits
+     * @return {@link #self()}
+     */
     public SELF the_index(
         @QueryBuilderFnFormatter.Annotation final Function<Query.Builder, ObjectBuilder<Query>> query,
         final Matcher<Stream<T>> matcher) {
@@ -71,18 +116,44 @@ public class ElasticSearchVerifications<T, TDocument, SELF extends ElasticSearch
             query.apply(new Query.Builder()).build().toString(),
             index.get(),
             documentType.get());
-        return eventually_assert_that(Unchecked
-            .supplier(() -> elasticsearchClient
-                .search(s -> s.index(index.get()).query(query),
-                    documentType.get())
-                .hits()
-                .hits()
-                .stream()
-                .map(Hit::source)
-                .filter(Objects::nonNull)
-                .map(convertBy.get())
-                .peek(o -> log.debug("received object {}", o))
-                .peek(o -> attach(o.toString()))),
-            matcher);
+        refreshingIfPending();
+        return eventually(self -> {
+            val attached = new AtomicInteger();
+            // NOTE closing the stream releases its point-in-time, even if the
+            // matcher did not consume all hits
+            try (val hits = SearchAfterStream.<TDocument> builder()
+                .client(elasticsearchClient)
+                .index(index.get())
+                .query(query)
+                .documentType(documentType.get())
+                .build()
+                .stream()) {
+                MatcherAssert.assertThat(hits
+                    .map(Hit::source)
+                    .filter(Objects::nonNull)
+                    .map(convertBy.get())
+                    .peek(o -> log.trace("received object {}", o))
+                    .peek(o -> {
+                        if (attached.getAndIncrement() < MAX_ATTACHED_HITS)
+                            attach(abbreviate(o.toString(),
+                                MAX_ATTACHMENT_LENGTH));
+                    }), matcher);
+            }
+            return self;
+        });
+    }
+
+    /**
+     * Refreshes the index if previous actions wrote documents that might not be
+     * searchable yet. Upon returning, all operations performed before the
+     * refresh are searchable.
+     */
+    @SneakyThrows
+    private void refreshingIfPending() {
+        if (null == refreshPending || !refreshPending.get())
+            return;
+        log.debug("refreshing index {}", index.get());
+        elasticsearchClient.indices().refresh(r -> r.index(index.get()));
+        refreshPending.set(false);
     }
 }
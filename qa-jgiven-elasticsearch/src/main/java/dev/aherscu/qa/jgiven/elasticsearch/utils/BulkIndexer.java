@@ -0,0 +1,309 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.jgiven.elasticsearch.utils;
+
+import static java.util.Objects.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+import co.elastic.clients.elasticsearch.*;
+import co.elastic.clients.elasticsearch.core.bulk.*;
+import co.elastic.clients.util.*;
+import dev.aherscu.qa.testing.utils.*;
+import lombok.*;
+import lombok.extern.slf4j.*;
+
+/**
+ * Indexes streams of documents via concurrent bulk requests, retrying items
+ * rejected due to back-pressure, and refreshing the index once at the end.
+ *
+ * <p>
+ * The stream is split into bulk requests by operations count and by approximate
+ * byte size. Each document is serialized once, by the client's mapper, and its
+ * bytes are both measured and sent as is. Up to {@link #concurrency} bulk
+ * requests are in-flight at once; beyond that, the consumption of the stream
+ * blocks.
+ * </p>
+ *
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * try (val indexer = BulkIndexer.&lt;YourDocument&gt; builder()
+ *     .client(elasticsearchClient)
+ *     .index("your-index")
+ *     .idBy(YourDocument::getId)
+ *     .build()) {
+ *     indexer.index(documents);
+ * }
+ * </pre>
+ * </p>
+ *
+ * @param <TDocument>
+ *            type of document
+ */
+@Slf4j
+public final class BulkIndexer<TDocument> implements AutoCloseable {
+    /**
+     * Default maximum number of operations per bulk request.
+     */
+    public static final int      DEFAULT_MAX_OPERATIONS = 1000;
+    /**
+     * Default maximum approximate size of bulk request.
+     */
+    public static final long     DEFAULT_MAX_BYTES      = 5L * 1024 * 1024;
+    /**
+     * Default maximum number of concurrent bulk requests.
+     */
+    public static final int      DEFAULT_CONCURRENCY    = 4;
+    /**
+     * Default maximum number of retries for rejected items.
+     */
+    public static final int      DEFAULT_MAX_RETRIES    = 3;
+    /**
+     * Default delay before first retry; doubled on each retry.
+     */
+    public static final Duration DEFAULT_RETRY_DELAY    =
+        Duration.ofMillis(100);
+
+    // NOTE: too many requests, i.e. rejected by a full write thread-pool queue
+    private static final int     REJECTED_STATUS        = 429;
+
+    /**
+     * Outcome of indexing.
+     */
+    @Value
+    public static class Result {
+        /**
+         * Number of documents indexed.
+         */
+        long     indexed;
+        /**
+         * Number of documents that failed to index.
+         */
+        long     failed;
+        /**
+         * Number of item retries.
+         */
+        long     retried;
+        /**
+         * Number of bulk requests sent, including retries.
+         */
+        long     requests;
+        /**
+         * Total time, including the final refresh.
+         */
+        Duration elapsed;
+    }
+
+    public final String                       index;
+    public final int                          maxOperations;
+    public final long                         maxBytes;
+    public final int                          concurrency;
+    public final int                          maxRetries;
+    public final Duration                     retryDelay;
+    private final ElasticsearchClient         client;
+    private final Function<TDocument, String> idBy;
+    private final ExecutorService             executor;
+    private final Semaphore                   inFlight;
+    private final AtomicLong                  indexed  = new AtomicLong();
+    private final AtomicLong                  failed   = new AtomicLong();
+    private final AtomicLong                  retried  = new AtomicLong();
+    private final AtomicLong                  requests = new AtomicLong();
+
+    /**
+     * @param client
+     *            the client
+     * @param index
+     *            the index
+     * @param idBy
+     *            extracts the document id; if null, ids are generated by
+     *            Elasticsearch
+     * @param maxOperations
+     *            maximum number of operations per bulk request; defaults to
+     *            {@link #DEFAULT_MAX_OPERATIONS}
+     * @param maxBytes
+     *            maximum approximate size of bulk request; defaults to
+     *            {@link #DEFAULT_MAX_BYTES}
+     * @param concurrency
+     *            maximum number of concurrent bulk requests; defaults to
+     *            {@link #DEFAULT_CONCURRENCY}
+     * @param maxRetries
+     *            maximum number of retries for rejected items; defaults to
+     *            {@link #DEFAULT_MAX_RETRIES}
+     * @param retryDelay
+     *            delay before first retry; defaults to
+     *            {@link #DEFAULT_RETRY_DELAY}
+     */
+    @Builder
+    private BulkIndexer(
+        final ElasticsearchClient client,
+        final String index,
+        final Function<TDocument, String> idBy,
+        final Integer maxOperations,
+        final Long maxBytes,
+        final Integer concurrency,
+        final Integer maxRetries,
+        final Duration retryDelay) {
+        this.client = requireNonNull(client, "client");
+        this.index = requireNonNull(index, "index");
+        this.idBy = idBy;
+        this.maxOperations =
+            requireNonNullElse(maxOperations, DEFAULT_MAX_OPERATIONS);
+        this.maxBytes = requireNonNullElse(maxBytes, DEFAULT_MAX_BYTES);
+        this.concurrency =
+            requireNonNullElse(concurrency, DEFAULT_CONCURRENCY);
+        this.maxRetries = requireNonNullElse(maxRetries, DEFAULT_MAX_RETRIES);
+        this.retryDelay = requireNonNullElse(retryDelay, DEFAULT_RETRY_DELAY);
+        this.executor = Executors.newFixedThreadPool(this.concurrency);
+        this.inFlight = new Semaphore(this.concurrency);
+    }
+
+    /**
+     * Stops the bulk requests threads.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Indexes all documents, waits for all bulk requests to complete, and
+     * refreshes the index.
+     *
+     * @param documents
+     *            the documents
+     * @return the outcome of this invocation
+     * @throws RuntimeException
+     *             upon communication failures
+     */
+    @SneakyThrows
+    public Result index(final Stream<TDocument> documents) {
+        val started = System.nanoTime();
+        val indexedBefore = indexed.get();
+        val failedBefore = failed.get();
+        val retriedBefore = retried.get();
+        val requestsBefore = requests.get();
+
+        val futures = new ArrayList<Future<?>>();
+        val batch = new ArrayList<BulkOperation>(maxOperations);
+        long batchBytes = 0;
+        try (documents) {
+            for (final Iterator<TDocument> iterator =
+                documents.iterator(); iterator.hasNext();) {
+                val document = iterator.next();
+                val serialized = serialized(document);
+                if (!batch.isEmpty() && (batch.size() >= maxOperations
+                    || batchBytes + serialized.size() > maxBytes)) {
+                    futures.add(submit(new ArrayList<>(batch)));
+                    batch.clear();
+                    batchBytes = 0;
+                }
+                batch.add(operationFor(document, serialized));
+                batchBytes += serialized.size();
+            }
+        }
+        if (!batch.isEmpty())
+            futures.add(submit(batch));
+        for (val future : futures)
+            future.get();
+
+        client.indices().refresh(r -> r.index(index));
+
+        val result = new Result(
+            indexed.get() - indexedBefore,
+            failed.get() - failedBefore,
+            retried.get() - retriedBefore,
+            requests.get() - requestsBefore,
+            Duration.ofNanos(System.nanoTime() - started));
+        log.info("indexed {} into {}", result, index);
+        return result;
+    }
+
+    // NOTE the client sends BinaryData documents as is, without serializing
+    // these again
+    private BulkOperation operationFor(
+        final TDocument document,
+        final BinaryData serialized) {
+        return BulkOperation.of(o -> o.index(i -> i
+            .id(isNull(idBy) ? null : idBy.apply(document))
+            .document(serialized)));
+    }
+
+    @SneakyThrows
+    private void send(final List<BulkOperation> operations) {
+        var pending = operations;
+        for (int attempt = 0; !pending.isEmpty(); attempt++) {
+            requests.incrementAndGet();
+            val current = pending;
+            val response = client.bulk(b -> b
+                .index(index)
+                .operations(current));
+
+            val rejected = new ArrayList<BulkOperation>();
+            val items = response.items();
+            for (int i = 0; i < items.size(); i++) {
+                val item = items.get(i);
+                if (isNull(item.error()))
+                    indexed.incrementAndGet();
+                else if (REJECTED_STATUS == item.status()
+                    && attempt < maxRetries)
+                    rejected.add(current.get(i));
+                else {
+                    log.warn("failed to index {}: {}",
+                        item.id(), item.error().reason());
+                    failed.incrementAndGet();
+                }
+            }
+
+            if (!rejected.isEmpty()) {
+                log.debug("retrying {} rejected items", rejected.size());
+                retried.addAndGet(rejected.size());
+                ThreadUtils.sleep(retryDelay.toMillis() << attempt);
+            }
+            pending = rejected;
+        }
+    }
+
+    private BinaryData serialized(final TDocument document) {
+        return BinaryData.of(document, client._transport().jsonpMapper());
+    }
+
+    @SneakyThrows
+    private Future<?> submit(final List<BulkOperation> operations) {
+        // NOTE blocks the stream consumer while all requests are in-flight
+        inFlight.acquire();
+        log.trace("submitting {} operations", operations.size());
+        try {
+            return executor.submit(() -> {
+                try {
+                    send(operations);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+}
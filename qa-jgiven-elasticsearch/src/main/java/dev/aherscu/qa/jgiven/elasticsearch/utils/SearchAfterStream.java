@@ -0,0 +1,173 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.jgiven.elasticsearch.utils;
+
+import static java.util.Collections.*;
+import static java.util.Objects.*;
+
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+import co.elastic.clients.elasticsearch.*;
+import co.elastic.clients.elasticsearch._types.*;
+import co.elastic.clients.elasticsearch._types.query_dsl.*;
+import co.elastic.clients.elasticsearch.core.search.*;
+import co.elastic.clients.util.*;
+import lombok.*;
+import lombok.extern.slf4j.*;
+
+/**
+ * Streams all hits of a search, page by page, using {@code search_after} over a
+ * point-in-time, hence observing a consistent view of the index.
+ *
+ * <p>
+ * Pages are fetched lazily, as the stream is consumed. The point-in-time is
+ * opened upon fetching the first page, and closed upon exhausting the hits or
+ * upon closing the stream; streams that are neither exhausted nor closed leave
+ * it open until {@link #keepAlive} expires.
+ * </p>
+ *
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * try (val hits = SearchAfterStream.&lt;YourDocument&gt; builder()
+ *     .client(elasticsearchClient)
+ *     .index("your-index")
+ *     .query(q -&gt; q.matchAll(m -&gt; m))
+ *     .documentType(YourDocument.class)
+ *     .build()
+ *     .stream()) {
+ *     // consume hits
+ * }
+ * </pre>
+ * </p>
+ *
+ * @param <TDocument>
+ *            type of document
+ */
+@Slf4j
+@Builder
+public final class SearchAfterStream<TDocument> {
+    /**
+     * Default number of hits per page.
+     */
+    public static final int                                     DEFAULT_PAGE_SIZE  =
+        1000;
+    /**
+     * Default point-in-time keep-alive, between pages.
+     */
+    public static final String                                  DEFAULT_KEEP_ALIVE =
+        "1m";
+
+    @NonNull
+    private final ElasticsearchClient                           client;
+    @NonNull
+    private final String                                        index;
+    @NonNull
+    private final Function<Query.Builder, ObjectBuilder<Query>> query;
+    @NonNull
+    private final Class<TDocument>                              documentType;
+    @Builder.Default
+    private final int                                           pageSize           =
+        DEFAULT_PAGE_SIZE;
+    @Builder.Default
+    private final String                                        keepAlive          =
+        DEFAULT_KEEP_ALIVE;
+
+    /**
+     * @return lazy stream of all hits
+     */
+    public Stream<Hit<TDocument>> stream() {
+        val pages = new Pages();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+            pages, Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(pages::close);
+    }
+
+    /**
+     * Iterates over the hits of all pages.
+     */
+    private final class Pages implements Iterator<Hit<TDocument>> {
+        private String                   pitId;
+        private List<FieldValue>         searchAfter = emptyList();
+        private Iterator<Hit<TDocument>> page        = emptyIterator();
+        private boolean                  lastPage;
+
+        @SneakyThrows
+        void close() {
+            if (isNull(pitId))
+                return;
+            val id = pitId;
+            pitId = null;
+            log.trace("closing point-in-time on {}", index);
+            client.closePointInTime(c -> c.id(id));
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!page.hasNext()) {
+                if (lastPage) {
+                    close();
+                    return false;
+                }
+                fetch();
+            }
+            return true;
+        }
+
+        @Override
+        public Hit<TDocument> next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            return page.next();
+        }
+
+        @SneakyThrows
+        private void fetch() {
+            if (isNull(pitId))
+                pitId = client
+                    .openPointInTime(o -> o
+                        .index(index)
+                        .keepAlive(t -> t.time(keepAlive)))
+                    .id();
+
+            val response = client.search(s -> {
+                s.pit(p -> p.id(pitId).keepAlive(t -> t.time(keepAlive)))
+                    .query(query)
+                    .size(pageSize)
+                    // NOTE implicit tie-breaker of point-in-time searches
+                    .sort(o -> o.field(f -> f.field("_shard_doc")))
+                    .trackTotalHits(t -> t.enabled(false));
+                if (!searchAfter.isEmpty())
+                    s.searchAfter(searchAfter);
+                return s;
+            }, documentType);
+
+            // NOTE the point-in-time id might change between searches
+            if (nonNull(response.pitId()))
+                pitId = response.pitId();
+            val hits = response.hits().hits();
+            log.trace("fetched {} hits from {}", hits.size(), index);
+            lastPage = hits.size() < pageSize;
+            if (!hits.isEmpty())
+                searchAfter = hits.get(hits.size() - 1).sort();
+            page = hits.iterator();
+        }
+    }
+}
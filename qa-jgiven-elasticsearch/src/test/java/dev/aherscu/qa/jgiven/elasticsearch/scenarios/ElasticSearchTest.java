@@ -19,6 +19,8 @@ package dev.aherscu.qa.jgiven.elasticsearch.scenarios;
 import static dev.aherscu.qa.testing.utils.StreamMatchersExtensions.*;
 import static org.hamcrest.Matchers.*;
 
+import java.util.stream.*;
+
 import org.testng.annotations.*;
 
 import dev.aherscu.qa.jgiven.elasticsearch.*;
@@ -64,6 +66,57 @@ public class ElasticSearchTest
             .the_document("dummy", is(AnObject.DUMMY));
     }
 
+    @Test
+    public void shouldIndexDocumentsInBulk() {
+        given().indexed_by("bulk-objects")
+            .and().storing(AnObject.class)
+            .and().elastic_search(configuration()
+                .elasticSearchClient());
+
+        when()
+            .adding_documents(IntStream.range(0, 10_000)
+                .mapToObj(i -> AnObject.builder()
+                    .id("bulk-" + i)
+                    .value1("value1-" + i)
+                    .value2("value2-" + i)
+                    .build()),
+                AnObject::getId);
+
+        then()
+            .the_document("bulk-9999", is(AnObject.builder()
+                .id("bulk-9999")
+                .value1("value1-9999")
+                .value2("value2-9999")
+                .build()));
+    }
+
+    @Test
+    public void shouldStreamAllHits() {
+        given().indexed_by("paged-objects")
+            .and().storing(AnObject.class)
+            .and().elastic_search(configuration()
+                .elasticSearchClient());
+
+        when()
+            .adding_documents(IntStream.range(0, 2_500)
+                .mapToObj(i -> AnObject.builder()
+                    .id("paged-" + i)
+                    .value1("kuku")
+                    .value2(String.valueOf(i))
+                    .build()),
+                AnObject::getId);
+
+        then()
+            // NOTE: spans three pages of hits
+            .the_index(q -> q.match(m -> m
+                .field("value1")
+                .query("kuku")),
+                adaptedStream(AnObject::getValue2,
+                    hasSpecificItemsInAnyOrder(IntStream.range(0, 2_500)
+                        .mapToObj(String::valueOf)
+                        .collect(Collectors.toSet()))));
+    }
+
     @Test
     void shouldFindDocument() {
         given().indexed_by("some-objects").and().storing(AnObject.class).and()
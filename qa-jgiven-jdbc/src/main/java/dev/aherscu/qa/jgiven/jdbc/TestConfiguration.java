@@ -64,7 +64,9 @@ public final class TestConfiguration extends BaseConfiguration {
         return queryRunners.computeIfAbsent(id, _id -> {
             val dataSource = new HikariDataSource();
             dataSource.setJdbcUrl(datasourceString(_id, "url"));
-            return new StreamingQueryRunner(dataSource);
+            return new StreamingQueryRunner(dataSource,
+                datasourceInt(_id, "fetch-size",
+                    StreamingQueryRunner.DEFAULT_FETCH_SIZE));
         });
     }
 
@@ -72,6 +74,10 @@ public final class TestConfiguration extends BaseConfiguration {
         return getInt("datasource" + DOT + id + DOT + name);
     }
 
+    private int datasourceInt(String id, String name, int defaultValue) {
+        return getInt("datasource" + DOT + id + DOT + name, defaultValue);
+    }
+
     private String datasourceString(String id, String name) {
         return getString("datasource" + DOT + id + DOT + name);
     }
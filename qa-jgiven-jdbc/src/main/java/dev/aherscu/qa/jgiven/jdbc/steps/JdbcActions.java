@@ -16,6 +16,8 @@
 
 package dev.aherscu.qa.jgiven.jdbc.steps;
 
+import java.util.stream.*;
+
 import com.tngtech.jgiven.annotation.*;
 
 import dev.aherscu.qa.jgiven.commons.steps.*;
@@ -29,6 +31,43 @@ public class JdbcActions<SELF extends JdbcActions<SELF>>
     extends GenericActions<JdbcScenarioType, SELF> {
     @ExpectedScenarioState
     public ThreadLocal<StreamingQueryRunner> queryRunner;
+    /**
+     * Number of parameter sets per batch, or {@code null} for
+     * {@link BatchExecutor#DEFAULT_BATCH_SIZE}.
+     */
+    protected final ThreadLocal<Integer>     batchSize             =
+        new ThreadLocal<>();
+    /**
+     * Number of batches per transaction, or {@code null} for
+     * {@link BatchExecutor#DEFAULT_BATCHES_PER_TRANSACTION}.
+     */
+    protected final ThreadLocal<Integer>     batchesPerTransaction =
+        new ThreadLocal<>();
+
+    /**
+     * Sets the batch size of subsequent {@link #executing_batch}s.
+     *
+     * @param rows
+     *            number of parameter sets per batch
+     * @return {@link #self()}
+     */
+    public SELF batching_$_rows(final int rows) {
+        batchSize.set(rows);
+        return self();
+    }
+
+    /**
+     * Sets the transaction boundaries of subsequent {@link #executing_batch}s.
+     *
+     * @param batches
+     *            number of batches per transaction; zero for a single
+     *            transaction
+     * @return {@link #self()}
+     */
+    public SELF committing_every_$_batches(final int batches) {
+        batchesPerTransaction.set(batches);
+        return self();
+    }
 
     @SneakyThrows
     public SELF executing(final String sql, final Object... params) {
@@ -37,4 +76,29 @@ public class JdbcActions<SELF extends JdbcActions<SELF>>
             queryRunner.get().execute(sql, params));
         return self();
     }
+
+    /**
+     * Executes a statement for each parameter set, in JDBC batches, as set by
+     * {@link #batching_$_rows(int)} and
+     * {@link #committing_every_$_batches(int)}.
+     *
+     * @param sql
+     *            the statement to execute
+     * @param params
+     *            stream of parameter sets
+     * @return {@link #self()}
+     * @see BatchExecutor
+     */
+    @SneakyThrows
+    public SELF executing_batch(
+        final String sql,
+        @Hidden final Stream<Object[]> params) {
+        BatchExecutor.builder()
+            .queryRunner(queryRunner.get())
+            .batchSize(batchSize.get())
+            .batchesPerTransaction(batchesPerTransaction.get())
+            .build()
+            .execute(sql, params);
+        return self();
+    }
 }
@@ -16,19 +16,38 @@
 
 package dev.aherscu.qa.jgiven.jdbc.steps;
 
+import static java.util.Objects.*;
+
+import java.util.stream.*;
+
 import org.apache.commons.dbutils.*;
 
 import com.tngtech.jgiven.annotation.*;
 
 import dev.aherscu.qa.jgiven.commons.steps.*;
 import dev.aherscu.qa.jgiven.jdbc.model.*;
+import dev.aherscu.qa.jgiven.jdbc.utils.dbutils.*;
+import lombok.*;
 import lombok.extern.slf4j.*;
 
 @Slf4j
 public class JdbcFixtures<SELF extends JdbcFixtures<SELF>>
     extends GenericFixtures<JdbcScenarioType, SELF> {
     @ProvidedScenarioState
-    public final ThreadLocal<QueryRunner> queryRunner = new ThreadLocal<>();
+    public final ThreadLocal<QueryRunner> queryRunner           =
+        new ThreadLocal<>();
+    /**
+     * Number of parameter sets per batch, or {@code null} for
+     * {@link BatchExecutor#DEFAULT_BATCH_SIZE}.
+     */
+    protected final ThreadLocal<Integer>  batchSize             =
+        new ThreadLocal<>();
+    /**
+     * Number of batches per transaction, or {@code null} for a single
+     * transaction.
+     */
+    protected final ThreadLocal<Integer>  batchesPerTransaction =
+        new ThreadLocal<>();
 
     public SELF a_query_runner_for(final QueryRunner queryRunner) {
         log.debug("setting query runner {}",
@@ -36,4 +55,55 @@ public class JdbcFixtures<SELF extends JdbcFixtures<SELF>>
         this.queryRunner.set(queryRunner);
         return self();
     }
+
+    /**
+     * Sets the batch size of subsequent {@link #seeded_by}s.
+     *
+     * @param rows
+     *            number of parameter sets per batch
+     * @return {@link #self()}
+     */
+    public SELF batching_$_rows(final int rows) {
+        batchSize.set(rows);
+        return self();
+    }
+
+    /**
+     * Sets the transaction boundaries of subsequent {@link #seeded_by}s.
+     *
+     * @param batches
+     *            number of batches per transaction; zero for a single
+     *            transaction
+     * @return {@link #self()}
+     */
+    public SELF committing_every_$_batches(final int batches) {
+        batchesPerTransaction.set(batches);
+        return self();
+    }
+
+    /**
+     * Loads fixture rows, in JDBC batches, as set by
+     * {@link #batching_$_rows(int)}, by default in a single transaction, unless
+     * set by {@link #committing_every_$_batches(int)}.
+     *
+     * @param sql
+     *            the statement to execute, usually an insert
+     * @param params
+     *            stream of parameter sets
+     * @return {@link #self()}
+     * @see BatchExecutor
+     */
+    @SneakyThrows
+    public SELF seeded_by(
+        final String sql,
+        @Hidden final Stream<Object[]> params) {
+        BatchExecutor.builder()
+            .queryRunner(queryRunner.get())
+            .batchSize(batchSize.get())
+            .batchesPerTransaction(
+                requireNonNullElse(batchesPerTransaction.get(), 0))
+            .build()
+            .execute(sql, params);
+        return self();
+    }
 }
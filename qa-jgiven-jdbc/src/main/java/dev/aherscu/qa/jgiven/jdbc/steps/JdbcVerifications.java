@@ -16,12 +16,14 @@
 
 package dev.aherscu.qa.jgiven.jdbc.steps;
 
+import static dev.aherscu.qa.jgiven.commons.utils.MetricReporterSuiteListener.*;
 import static org.hamcrest.MatcherAssert.*;
 
+import java.util.*;
+import java.util.concurrent.atomic.*;
 import java.util.stream.*;
 
 import org.hamcrest.*;
-import org.jooq.lambda.*;
 
 import com.tngtech.jgiven.annotation.*;
 
@@ -35,21 +37,86 @@ import lombok.extern.slf4j.*;
 public class JdbcVerifications<SELF extends JdbcVerifications<SELF>>
     extends GenericVerifications<JdbcScenarioType, SELF> {
 
+    /**
+     * Histogram of full query evaluations per change-detecting wait.
+     */
+    public static final String               FULL_EVALUATIONS_METRIC =
+        "jdbc.full-evaluations";
+
     @ExpectedScenarioState
     public ThreadLocal<StreamingQueryRunner> queryRunner;
 
+    /**
+     * Like {@link #the_query(String, Matcher, Object...)}, but while waiting,
+     * re-executes the query only when the result of a cheap probe query
+     * changes.
+     *
+     * <p>
+     * The probe should return a single row summarizing the state of queried
+     * data, e.g. {@code select count(*), max(UPDATED) from TABLE}, or a
+     * checksum over key columns; it is compared to its previous result, and
+     * while unchanged the previous assertion failure is repeated. The number of
+     * full evaluations is logged and recorded into the
+     * {@value #FULL_EVALUATIONS_METRIC} histogram.
+     * </p>
+     *
+     * @param probe
+     *            the probe query, without parameters
+     * @param sql
+     *            the query
+     * @param expected
+     *            matcher of query results
+     * @param params
+     *            the query parameters
+     * @return {@link #self()}
+     */
+    public SELF the_query_upon_changes_of(
+        final String probe,
+        final String sql,
+        final Matcher<Stream<Object[]>> expected,
+        final Object... params) {
+        return uponChangesOf(probe, sql,
+            () -> assertQuery(sql, expected, params));
+    }
+
+    /**
+     * Like {@link #the_query(Class, String, Matcher, Object...)}, but while
+     * waiting, re-executes the query only when the result of a cheap probe
+     * query changes.
+     *
+     * @param <T>
+     *            type of bean
+     * @param probe
+     *            the probe query, without parameters; see
+     *            {@link #the_query_upon_changes_of(String, String, Matcher, Object...)}
+     * @param type
+     *            type of bean
+     * @param sql
+     *            the query
+     * @param expected
+     *            matcher of query results
+     * @param params
+     *            the query parameters
+     * @return {@link #self()}
+     */
+    public <T> SELF the_query_upon_changes_of(
+        final String probe,
+        final Class<T> type,
+        final String sql,
+        final Matcher<Stream<T>> expected,
+        final Object... params) {
+        return uponChangesOf(probe, sql,
+            () -> assertQuery(type, sql, expected, params));
+    }
+
     public SELF the_query(
         final String sql,
         final Matcher<Stream<Object[]>> expected,
         final Object... params) {
-        return eventually(Unchecked.function(self -> {
-            try (val results = queryRunner.get()
-                .queryStream(sql, new ArrayStreamingHandler(), params)
-                .peek(row -> log.trace("row[0]: {}", row[0]))) {
-                assertThat(results, expected);
-                return self;
-            }
-        }));
+        return eventually(self -> {
+            assertQuery(sql, expected, params);
+            return self;
+        });
     }
 
     public <T> SELF the_query(
@@ -57,13 +124,73 @@ public class JdbcVerifications<SELF extends JdbcVerifications<SELF>>
         final String sql,
         final Matcher<Stream<T>> expected,
         final Object... params) {
-        return eventually(Unchecked.function(self -> {
-            try (val results = queryRunner.get()
-                .queryStream(sql, new BeanStreamingHandler<>(type), params)
-                .peek(row -> log.trace("row: {}", row))) {
-                assertThat(results, expected);
+        return eventually(self -> {
+            assertQuery(type, sql, expected, params);
+            return self;
+        });
+    }
+
+    @SneakyThrows
+    private <T> void assertQuery(
+        final Class<T> type,
+        final String sql,
+        final Matcher<Stream<T>> expected,
+        final Object... params) {
+        try (val results = queryRunner.get()
+            .queryStream(sql, new BeanStreamingHandler<>(type), params)
+            .peek(row -> log.trace("row: {}", row))) {
+            assertThat(results, expected);
+        }
+    }
+
+    @SneakyThrows
+    private void assertQuery(
+        final String sql,
+        final Matcher<Stream<Object[]>> expected,
+        final Object... params) {
+        try (val results = queryRunner.get()
+            .queryStream(sql, new ArrayStreamingHandler(), params)
+            .peek(row -> log.trace("row[0]: {}", row[0]))) {
+            assertThat(results, expected);
+        }
+    }
+
+    @SneakyThrows
+    private Object[] probing(final String probe) {
+        try (val results = queryRunner.get().queryStream(probe)) {
+            return results.findFirst().orElse(new Object[0]);
+        }
+    }
+
+    private SELF uponChangesOf(
+        final String probe,
+        final String sql,
+        final Runnable assertion) {
+        val previousProbe = new AtomicReference<Object[]>();
+        val previousFailure = new AtomicReference<AssertionError>();
+        val evaluations = new AtomicInteger();
+        try {
+            return eventually(self -> {
+                val probed = probing(probe);
+                if (null != previousFailure.get()
+                    && Arrays.deepEquals(probed, previousProbe.get())) {
+                    log.trace("unchanged {}", Arrays.toString(probed));
+                    throw previousFailure.get();
+                }
+                previousProbe.set(probed);
+                evaluations.incrementAndGet();
+                try {
+                    assertion.run();
+                } catch (final AssertionError e) {
+                    previousFailure.set(e);
+                    throw e;
+                }
                 return self;
-            }
-        }));
+            });
+        } finally {
+            log.info("{} full evaluations of {}", evaluations.get(), sql);
+            METRIC_REGISTRY.histogram(FULL_EVALUATIONS_METRIC)
+                .update(evaluations.get());
+        }
     }
 }
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.jgiven.jdbc.utils.dbutils;
+
+import static java.util.Objects.*;
+
+import java.sql.*;
+import java.time.*;
+import java.util.*;
+import java.util.stream.*;
+
+import org.apache.commons.dbutils.*;
+
+import lombok.*;
+import lombok.extern.slf4j.*;
+
+/**
+ * Executes a statement for a stream of parameter sets using JDBC batching,
+ * committing every {@link #batchesPerTransaction} batches.
+ *
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * BatchExecutor.builder()
+ *     .queryRunner(queryRunner)
+ *     .batchSize(500)
+ *     .batchesPerTransaction(10)
+ *     .build()
+ *     .execute("insert into TABLE values (?, ?)", rows)
+ * </pre>
+ * </p>
+ */
+@Slf4j
+public final class BatchExecutor {
+    /**
+     * Default number of parameter sets per batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE              = 1000;
+    /**
+     * Default number of batches per transaction.
+     */
+    public static final int DEFAULT_BATCHES_PER_TRANSACTION = 1;
+
+    /**
+     * Outcome of a batch execution.
+     */
+    @Value
+    public static class Result {
+        /**
+         * Number of parameter sets executed.
+         */
+        long     rows;
+        /**
+         * Number of updated rows, as reported by the driver; might be less than
+         * actually updated if the driver does not report counts.
+         */
+        long     updated;
+        /**
+         * Number of batches executed.
+         */
+        long     batches;
+        /**
+         * Total execution time, including commits.
+         */
+        Duration elapsed;
+
+        /**
+         * @return executed parameter sets per second
+         */
+        public double rowsPerSecond() {
+            return elapsed.isZero()
+                ? rows
+                : rows * 1_000_000_000.0 / elapsed.toNanos();
+        }
+    }
+
+    public final QueryRunner queryRunner;
+    public final int         batchSize;
+    public final int         batchesPerTransaction;
+
+    /**
+     * @param queryRunner
+     *            the query runner whose data-source provides the connection,
+     *            and which fills the statement parameters
+     * @param batchSize
+     *            number of parameter sets per batch; defaults to
+     *            {@link #DEFAULT_BATCH_SIZE}
+     * @param batchesPerTransaction
+     *            number of batches per transaction; zero for a single
+     *            transaction; defaults to
+     *            {@link #DEFAULT_BATCHES_PER_TRANSACTION}
+     */
+    @Builder
+    private BatchExecutor(
+        final QueryRunner queryRunner,
+        final Integer batchSize,
+        final Integer batchesPerTransaction) {
+        this.queryRunner = requireNonNull(queryRunner, "queryRunner");
+        this.batchSize = requireNonNullElse(batchSize, DEFAULT_BATCH_SIZE);
+        this.batchesPerTransaction = requireNonNullElse(batchesPerTransaction,
+            DEFAULT_BATCHES_PER_TRANSACTION);
+        if (this.batchSize < 1)
+            throw new IllegalArgumentException(
+                "batch size must be positive but was " + this.batchSize);
+        if (this.batchesPerTransaction < 0)
+            throw new IllegalArgumentException(
+                "batches per transaction must not be negative but was "
+                    + this.batchesPerTransaction);
+    }
+
+    private static long updatedBy(final int[] counts) {
+        // NOTE drivers might return Statement.SUCCESS_NO_INFO
+        return Arrays.stream(counts).filter(count -> count > 0).asLongStream()
+            .sum();
+    }
+
+    /**
+     * Executes the statement for all parameter sets. Upon failure, the current
+     * transaction is rolled back; previously committed transactions remain.
+     *
+     * @param sql
+     *            the statement to execute
+     * @param params
+     *            stream of parameter sets
+     * @return the outcome
+     * @throws SQLException
+     *             upon failure
+     */
+    public Result execute(final String sql, final Stream<Object[]> params)
+        throws SQLException {
+        val started = System.nanoTime();
+        long rows = 0, updated = 0, batches = 0;
+        try (val connection = queryRunner.getDataSource().getConnection()) {
+            val autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (val statement = connection.prepareStatement(sql); params) {
+                val iterator = params.iterator();
+                int pending = 0;
+                while (iterator.hasNext()) {
+                    queryRunner.fillStatement(statement, iterator.next());
+                    statement.addBatch();
+                    rows++;
+                    if (++pending == batchSize) {
+                        updated += updatedBy(statement.executeBatch());
+                        pending = 0;
+                        batches++;
+                        if (0 != batchesPerTransaction
+                            && 0 == batches % batchesPerTransaction)
+                            connection.commit();
+                    }
+                }
+                if (pending > 0) {
+                    updated += updatedBy(statement.executeBatch());
+                    batches++;
+                }
+                connection.commit();
+            } catch (final SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+
+        val result = new Result(rows, updated, batches,
+            Duration.ofNanos(System.nanoTime() - started));
+        log.info("executed {} rows in {} batches, {} rows/s",
+            result.rows, result.batches, (long) result.rowsPerSecond());
+        return result;
+    }
+}
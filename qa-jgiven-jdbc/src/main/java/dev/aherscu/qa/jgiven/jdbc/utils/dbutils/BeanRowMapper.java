@@ -0,0 +1,213 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.jgiven.jdbc.utils.dbutils;
+
+import static java.lang.invoke.MethodType.*;
+
+import java.beans.*;
+import java.lang.invoke.*;
+import java.math.*;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import lombok.*;
+import lombok.extern.slf4j.*;
+
+/**
+ * Maps rows to beans, resolving bean properties once per bean type, and the
+ * column-to-property mapping once per result set, and then setting properties
+ * via cached {@link MethodHandle}s.
+ *
+ * <p>
+ * Columns are matched to bean properties by case-insensitive name, using the
+ * column label, as {@link org.apache.commons.dbutils.BeanProcessor} does;
+ * unmatched columns are ignored. Each column is read by the {@link ResultSet}
+ * getter matching its property type; {@code null}s leave primitive properties
+ * at their defaults.
+ * </p>
+ *
+ * @param <T>
+ *            type of bean
+ */
+@Slf4j
+public final class BeanRowMapper<T> implements RowHandler<T> {
+    @FunctionalInterface
+    private interface ColumnReader {
+        Object read(ResultSet resultSet, int column) throws SQLException;
+    }
+
+    @Value
+    private static class Property {
+        ColumnReader reader;
+        MethodHandle setter;
+    }
+
+    /**
+     * Constructor and writable properties of a bean type, by lower-case name.
+     */
+    private static final class BeanType {
+        final Class<?>              type;
+        final MethodHandle          constructor;
+        final Map<String, Property> properties = new HashMap<>();
+
+        @SneakyThrows
+        BeanType(final Class<?> type) {
+            val lookup = MethodHandles.publicLookup();
+            this.type = type;
+            constructor = lookup
+                .findConstructor(type, methodType(void.class))
+                .asType(methodType(Object.class));
+            for (val property : Introspector.getBeanInfo(type)
+                .getPropertyDescriptors())
+                if (null != property.getWriteMethod())
+                    properties.put(
+                        property.getName().toLowerCase(Locale.ROOT),
+                        new Property(readerFor(property.getPropertyType()),
+                            lookup.unreflect(property.getWriteMethod())
+                                .asType(methodType(void.class,
+                                    Object.class, Object.class))));
+        }
+    }
+
+    // NOTE keyed by type only, hence bounded by the number of bean types
+    private static final ConcurrentMap<Class<?>, BeanType> TYPES =
+        new ConcurrentHashMap<>();
+
+    private final MethodHandle                             constructor;
+    private final int[]                                    columns;
+    private final ColumnReader[]                           readers;
+    private final MethodHandle[]                           setters;
+
+    private BeanRowMapper(final BeanType beanType, final List<String> labels) {
+        constructor = beanType.constructor;
+
+        val mappedColumns = new ArrayList<Integer>();
+        val mappedProperties = new ArrayList<Property>();
+        for (int i = 0; i < labels.size(); i++) {
+            val property = beanType.properties
+                .get(labels.get(i).toLowerCase(Locale.ROOT));
+            if (null == property) {
+                log.trace("no property for column {} of {}",
+                    labels.get(i), beanType.type);
+                continue;
+            }
+            mappedColumns.add(i + 1);
+            mappedProperties.add(property);
+        }
+
+        columns = mappedColumns.stream().mapToInt(Integer::intValue).toArray();
+        readers = mappedProperties.stream()
+            .map(Property::getReader)
+            .toArray(ColumnReader[]::new);
+        setters = mappedProperties.stream()
+            .map(Property::getSetter)
+            .toArray(MethodHandle[]::new);
+        log.debug("mapped {} of {} columns to {}",
+            columns.length, labels.size(), beanType.type);
+    }
+
+    /**
+     * Creates a mapper for specified type and result set shape; should be
+     * called once per result set. Bean properties are resolved on first use of
+     * each type.
+     *
+     * @param <T>
+     *            type of bean
+     * @param type
+     *            the bean type; must be public and have a public no-args
+     *            constructor
+     * @param metaData
+     *            the result set meta-data
+     * @return the mapper
+     * @throws SQLException
+     *             if meta-data could not be retrieved
+     */
+    public static <T> BeanRowMapper<T> of(
+        final Class<? extends T> type,
+        final ResultSetMetaData metaData) throws SQLException {
+        val labels = new ArrayList<String>(metaData.getColumnCount());
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            val label = metaData.getColumnLabel(i);
+            labels.add(null == label || label.isEmpty()
+                ? metaData.getColumnName(i)
+                : label);
+        }
+        return new BeanRowMapper<>(
+            TYPES.computeIfAbsent(type, BeanType::new), labels);
+    }
+
+    private static ColumnReader readerFor(final Class<?> type) {
+        if (String.class == type)
+            return ResultSet::getString;
+        if (int.class == type || Integer.class == type)
+            return nullable(ResultSet::getInt);
+        if (long.class == type || Long.class == type)
+            return nullable(ResultSet::getLong);
+        if (double.class == type || Double.class == type)
+            return nullable(ResultSet::getDouble);
+        if (float.class == type || Float.class == type)
+            return nullable(ResultSet::getFloat);
+        if (short.class == type || Short.class == type)
+            return nullable(ResultSet::getShort);
+        if (byte.class == type || Byte.class == type)
+            return nullable(ResultSet::getByte);
+        if (boolean.class == type || Boolean.class == type)
+            return nullable(ResultSet::getBoolean);
+        if (BigDecimal.class == type)
+            return ResultSet::getBigDecimal;
+        if (Timestamp.class == type || java.util.Date.class == type)
+            return ResultSet::getTimestamp;
+        if (java.sql.Date.class == type)
+            return ResultSet::getDate;
+        if (Time.class == type)
+            return ResultSet::getTime;
+        if (type.isEnum())
+            return enumReaderFor(type.asSubclass(Enum.class));
+        return ResultSet::getObject;
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static ColumnReader enumReaderFor(
+        final Class<? extends Enum> type) {
+        return (resultSet, column) -> {
+            val name = resultSet.getString(column);
+            return null == name ? null : Enum.valueOf(type, name);
+        };
+    }
+
+    private static ColumnReader nullable(final ColumnReader reader) {
+        return (resultSet, column) -> {
+            val value = reader.read(resultSet, column);
+            return resultSet.wasNull() ? null : value;
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    @SneakyThrows
+    public T handleRow(final ResultSet resultSet) throws SQLException {
+        // NOTE invokeExact requires exact static types at call site
+        final Object bean = (Object) constructor.invokeExact();
+        for (int i = 0; i < columns.length; i++) {
+            final Object value = readers[i].read(resultSet, columns[i]);
+            if (null != value)
+                setters[i].invokeExact(bean, value);
+        }
+        return (T) bean;
+    }
+}
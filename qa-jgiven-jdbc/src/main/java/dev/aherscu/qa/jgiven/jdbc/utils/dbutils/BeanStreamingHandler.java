@@ -18,27 +18,49 @@ package dev.aherscu.qa.jgiven.jdbc.utils.dbutils;
 
 import java.sql.*;
 
-import org.apache.commons.dbutils.*;
+import lombok.*;
 
 /**
  * ResultSetHandler implementation that converts the ResultSet into a Stream of
- * Object[]s.
+ * beans, via {@link BeanRowMapper}, hence resolving the column-to-property
+ * mapping once per ResultSet.
  *
  * @see org.apache.commons.dbutils.ResultSetHandler
  */
 public class BeanStreamingHandler<T> extends StreamingResultSetHandler<T> {
 
-    private static final BasicRowProcessor rowProcessor =
-        new BasicRowProcessor();
+    /**
+     * The last ResultSet handled row by row, and its mapper.
+     */
+    @Value
+    private static class Mapping<T> {
+        ResultSet        resultSet;
+        BeanRowMapper<T> mapper;
+    }
 
-    private final Class<? extends T>       type;
+    private final Class<? extends T> type;
+    private volatile Mapping<T>      lastMapping;
 
     public BeanStreamingHandler(Class<? extends T> type) {
         this.type = type;
     }
 
+    @Override
+    RowHandler<T> rowHandlerFor(ResultSet rs) throws SQLException {
+        return BeanRowMapper.of(type, rs.getMetaData());
+    }
+
+    /**
+     * Maps current row; not used when streaming, which resolves the mapper via
+     * {@link #rowHandlerFor(ResultSet)}. Resolves the mapper only when called
+     * with another ResultSet than previously.
+     */
     @Override
     protected T handleRow(ResultSet rs) throws SQLException {
-        return rowProcessor.toBean(rs, type);
+        Mapping<T> mapping = lastMapping;
+        if (null == mapping || mapping.resultSet != rs)
+            lastMapping = mapping =
+                new Mapping<>(rs, BeanRowMapper.of(type, rs.getMetaData()));
+        return mapping.mapper.handleRow(rs);
     }
 }
@@ -17,11 +17,13 @@
 package dev.aherscu.qa.jgiven.jdbc.utils.dbutils;
 
 import java.sql.*;
+import java.util.*;
 import java.util.stream.*;
 
 import javax.sql.*;
 
 import org.apache.commons.dbutils.*;
+import org.jooq.lambda.*;
 
 import jakarta.ws.rs.core.*;
 import lombok.*;
@@ -34,8 +36,59 @@ import lombok.*;
  * memory.
  */
 public class StreamingQueryRunner extends QueryRunner {
+    /**
+     * Default number of rows fetched per database round-trip.
+     */
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+    private final int       fetchSize;
+
     public StreamingQueryRunner(DataSource dataSource) {
+        this(dataSource, DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * @param dataSource
+     *            The DataSource to retrieve connections from
+     * @param fetchSize
+     *            The number of rows fetched per database round-trip; a hint to
+     *            the JDBC driver, which might ignore it
+     */
+    public StreamingQueryRunner(DataSource dataSource, int fetchSize) {
         super(dataSource);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Splits a key-range into contiguous partitions of about equal size. The
+     * last partition takes the remainder. There are never more partitions than
+     * keys.
+     *
+     * @param from
+     *            The lower key, inclusive
+     * @param to
+     *            The upper key, exclusive
+     * @param partitions
+     *            Number of partitions
+     * @return the partitions as {@code [from, to)} pairs, possibly empty if the
+     *         key-range is empty
+     * @throws IllegalArgumentException
+     *             if the number of partitions is not positive
+     */
+    public static List<long[]> partitionsOf(
+        long from, long to, int partitions) {
+        if (partitions < 1)
+            throw new IllegalArgumentException(
+                "partitions must be positive, got " + partitions);
+        if (to <= from)
+            return Collections.emptyList();
+        long count = Math.min(partitions, to - from);
+        long size = (to - from) / count;
+        List<long[]> result = new ArrayList<>((int) count);
+        for (long i = 0; i < count; i++)
+            result.add(new long[] {
+                from + i * size,
+                i == count - 1 ? to : from + (i + 1) * size });
+        return result;
     }
 
     private static void closeUnchecked(AutoCloseable closeable) {
@@ -103,6 +156,57 @@ public class StreamingQueryRunner extends QueryRunner {
         return query(connection, false, sql, handler, args);
     }
 
+    /**
+     * Executes a query over partitions of a key-range, each on its own
+     * connection, and returns a parallel Stream merging the rows of all
+     * partitions. Connections are opened lazily, as partitions are consumed,
+     * and are closed as soon as their partition is exhausted, or when the
+     * stream is closed.
+     *
+     * <p>
+     * The query must end with two parameters bounding the partition key, e.g.
+     *
+     * <pre>
+     * select ID, NAME from TABLE where ID &gt;= ? and ID &lt; ?
+     * </pre>
+     *
+     * These will be filled with the bounds of each partition, following any
+     * other arguments. Rows are not ordered between partitions.
+     * </p>
+     *
+     * @param sql
+     *            The SQL query to execute, ending with two key-range parameters
+     * @param handler
+     *            The ResultSetHandler that converts the ResultSet to a Stream;
+     *            must be thread-safe
+     * @param from
+     *            The lower key, inclusive
+     * @param to
+     *            The upper key, exclusive
+     * @param partitions
+     *            Number of partitions, hence the maximum number of connections
+     *            to use concurrently
+     * @param args
+     *            The arguments to pass to the query as prepared statement
+     *            parameters, preceding the key-range bounds
+     */
+    public <T> Stream<T> queryPartitionedStream(
+        String sql, StreamingResultSetHandler<T> handler,
+        long from, long to, int partitions,
+        Object... args) {
+        return partitionsOf(from, to, partitions)
+            .stream()
+            .parallel()
+            // NOTE flatMap closes each partition stream when exhausted
+            .flatMap(Unchecked.function((long[] partition) -> {
+                Object[] partitionArgs =
+                    Arrays.copyOf(args, args.length + 2);
+                partitionArgs[args.length] = partition[0];
+                partitionArgs[args.length + 1] = partition[1];
+                return queryStream(sql, handler, partitionArgs);
+            }));
+    }
+
     @Override
     @SneakyThrows
     public String toString() {
@@ -136,8 +240,10 @@ public class StreamingQueryRunner extends QueryRunner {
         // We cannot use try-with-resources: if there is no exception the
         // PreparedStatement
         // and ResultSet must remain open.
-        PreparedStatement statement = connection.prepareStatement(sql);
+        PreparedStatement statement = connection.prepareStatement(sql,
+            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
         try {
+            statement.setFetchSize(fetchSize);
             fillStatement(statement, args);
             ResultSet resultSet = statement.executeQuery();
             Stream<T> stream = handler.handle(resultSet)
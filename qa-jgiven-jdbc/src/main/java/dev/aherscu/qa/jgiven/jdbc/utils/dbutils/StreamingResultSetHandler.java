@@ -48,13 +48,28 @@ public abstract class StreamingResultSetHandler<T>
     @Override
     public Stream<T> handle(ResultSet resultSet) throws SQLException {
         ResultSetIterator<T> iterator =
-            new ResultSetIterator<>(resultSet, this::handleRow);
+            new ResultSetIterator<>(resultSet, rowHandlerFor(resultSet));
         return StreamSupport.stream(
             Spliterators.spliteratorUnknownSize(iterator,
                 Spliterator.ORDERED | Spliterator.IMMUTABLE),
             false);
     }
 
+    /**
+     * Resolves the row handler for a ResultSet, once before iterating its rows.
+     * Override in order to resolve per ResultSet shape work in advance.
+     *
+     * @param resultSet
+     *            ResultSet to process.
+     * @return the row handler; by default {@link #handleRow(ResultSet)}
+     * @throws SQLException
+     *             error occurs
+     */
+    RowHandler<T> rowHandlerFor(ResultSet resultSet)
+        throws SQLException {
+        return this::handleRow;
+    }
+
     /**
      * Row handler. Method converts current row into some Java object.
      *
@@ -17,7 +17,12 @@
 package dev.aherscu.qa.jgiven.jdbc.scenarios;
 
 import static dev.aherscu.qa.testing.utils.StreamMatchersExtensions.*;
+import static java.util.concurrent.CompletableFuture.*;
+import static java.util.concurrent.TimeUnit.*;
 
+import java.util.stream.*;
+
+import org.jooq.lambda.*;
 import org.testng.annotations.*;
 
 import dev.aherscu.qa.jgiven.jdbc.*;
@@ -69,4 +74,50 @@ public class JdbcTest extends AbstractJdbcTest {
                 "select * from TEST_TABLE",
                 hasSpecificItems(new AnObject("value 1")));
     }
+
+    @Test
+    @SneakyThrows
+    public void shouldSeedAndExecuteInBatches() {
+        val queryRunner = configuration().queryRunnerFor("db-4");
+        queryRunner.execute("create table TEST_TABLE(ID integer)");
+
+        given()
+            .a_query_runner_for(queryRunner)
+            .and().batching_$_rows(2)
+            .and().seeded_by("insert into TEST_TABLE values (?)",
+                IntStream.range(0, 5).mapToObj(i -> new Object[] { i }));
+
+        when()
+            .batching_$_rows(2)
+            .and().committing_every_$_batches(2)
+            .and().executing_batch("insert into TEST_TABLE values (?)",
+                IntStream.range(5, 10).mapToObj(i -> new Object[] { i }));
+
+        then()
+            .the_query("select count(*) from TEST_TABLE",
+                adaptedStream(row -> row[0],
+                    hasSpecificItems(10)));
+    }
+
+    @Test
+    public void shouldWaitUponChanges() {
+        val queryRunner = configuration().queryRunnerFor("db-3");
+        given()
+            .a_query_runner_for(queryRunner);
+
+        when()
+            .executing("create table TEST_TABLE(NAME varchar(20))");
+
+        // NOTE: arrives while waiting
+        runAsync(Unchecked.runnable(() -> queryRunner
+            .execute("insert into TEST_TABLE values ('value 1')")),
+            delayedExecutor(2, SECONDS));
+
+        then()
+            .the_query_upon_changes_of(
+                "select count(*) from TEST_TABLE",
+                "select * from TEST_TABLE",
+                adaptedStream(row -> row[0],
+                    hasSpecificItems("value 1")));
+    }
 }
@@ -22,9 +22,11 @@ import static dev.aherscu.qa.testing.utils.config.AbstractConfiguration.*;
 import static java.time.Duration.*;
 import static java.util.concurrent.CompletableFuture.*;
 import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
 
 import java.util.stream.*;
 
+import org.hamcrest.*;
 import org.jooq.lambda.*;
 import org.testng.annotations.*;
 
@@ -35,8 +37,90 @@ import net.jodah.failsafe.*;
 
 @Slf4j
 public class DbUtilsTest {
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Row {
+        long   id;
+        String name;
+    }
+
+    // NOTE: doubled this many times, starting with one row
+    private static final int        DOUBLINGS = 20;
+    private static final long       ROWS      = 1L << DOUBLINGS;
     private final TestConfiguration configuration;
 
+    @Test
+    @SneakyThrows
+    public void shouldExecuteInBatches() {
+        queryRunner()
+            .execute("create table BATCH_TABLE(ID INT, NAME VARCHAR(20))");
+        val result = BatchExecutor.builder()
+            .queryRunner(queryRunner())
+            .batchSize(1000)
+            .batchesPerTransaction(3)
+            .build()
+            .execute("insert into BATCH_TABLE values (?, ?)",
+                IntStream.range(0, 10_500)
+                    .mapToObj(i -> new Object[] { i, "name " + i }));
+
+        assertThat(result.getRows(), equalTo(10_500L));
+        assertThat(result.getBatches(), equalTo(11L));
+        try (val results = queryRunner()
+            .queryStream("select count(*) from BATCH_TABLE")) {
+            assertThat(results,
+                adaptedStream(row -> ((Number) row[0]).longValue(),
+                    hasSpecificItems(10_500L)));
+        }
+    }
+
+    @Test
+    public void shouldPartitionKeyRange() {
+        assertThat(StreamingQueryRunner.partitionsOf(0, 10, 3),
+            Matchers.contains(new long[] { 0, 3 }, new long[] { 3, 6 },
+                new long[] { 6, 10 }));
+        assertThat(StreamingQueryRunner.partitionsOf(5, 7, 4),
+            Matchers.contains(new long[] { 5, 6 }, new long[] { 6, 7 }));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldStreamPartitionsInParallel() {
+        try (val results = queryRunner()
+            .queryPartitionedStream(
+                "select ID from PARTITIONED_TABLE where ID >= ? and ID < ?",
+                new ArrayStreamingHandler(), 0, ROWS, 4)) {
+            val summary = results
+                .mapToLong(row -> ((Number) row[0]).longValue())
+                .summaryStatistics();
+            assertThat(summary.getCount(), equalTo(ROWS));
+            assertThat(summary.getSum(), equalTo(ROWS * (ROWS - 1) / 2));
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldStreamBeans() {
+        try (val results = queryRunner()
+            .queryStream(
+                "select ID, 'row' as NAME, ID + 1 as UNMAPPED"
+                    + " from PARTITIONED_TABLE where ID < 3 order by ID",
+                new BeanStreamingHandler<>(Row.class))) {
+            assertThat(results.collect(Collectors.toList()),
+                Matchers.contains(new Row(0, "row"), new Row(1, "row"),
+                    new Row(2, "row")));
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldStreamManyRows() {
+        try (val results = queryRunner()
+            .queryStream("select ID from PARTITIONED_TABLE")) {
+            assertThat(results.count(), equalTo(ROWS));
+        }
+    }
+
     @SneakyThrows
     public DbUtilsTest() {
         configuration = new TestConfiguration(defaultConfiguration());
@@ -99,6 +183,16 @@ public class DbUtilsTest {
             "create index TEST_TABLE_INDEX on TEST_TABLE(NAME)");
         queryRunner().execute(
             "insert into TEST_TABLE values ('inserted value 1')");
+
+        queryRunner().execute(
+            "create table PARTITIONED_TABLE(ID BIGINT PRIMARY KEY)");
+        queryRunner().execute(
+            "insert into PARTITIONED_TABLE values (0)");
+        for (long rows = 1; rows < ROWS; rows *= 2)
+            queryRunner().execute(
+                "insert into PARTITIONED_TABLE"
+                    + " select ID + CAST(? AS BIGINT) from PARTITIONED_TABLE",
+                rows);
     }
 
     @SneakyThrows
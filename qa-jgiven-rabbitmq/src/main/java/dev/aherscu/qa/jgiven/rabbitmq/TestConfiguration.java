@@ -54,4 +54,29 @@ public final class TestConfiguration extends BaseConfiguration {
     public ConnectionFactory connectionFactory() {
         return QueueHandler.connectionFactoryFrom(getString("rabbitmq.url"));
     }
+
+    /**
+     * @param queue
+     *            the queue name
+     * @return the {@code rabbitmq.<queue>.prefetch} setting, falling back to
+     *         {@code rabbitmq.prefetch}, or to
+     *         {@link QueueHandler#DEFAULT_PREFETCH}
+     */
+    public int prefetch(final String queue) {
+        return getInt("rabbitmq." + queue + ".prefetch",
+            getInt("rabbitmq.prefetch", QueueHandler.DEFAULT_PREFETCH));
+    }
+
+    /**
+     * @param queue
+     *            the queue name
+     * @return the {@code rabbitmq.<queue>.ack-batch-size} setting, falling back
+     *         to {@code rabbitmq.ack-batch-size}, or to
+     *         {@link QueueHandler#DEFAULT_ACK_BATCH_SIZE}
+     */
+    public int ackBatchSize(final String queue) {
+        return getInt("rabbitmq." + queue + ".ack-batch-size",
+            getInt("rabbitmq.ack-batch-size",
+                QueueHandler.DEFAULT_ACK_BATCH_SIZE));
+    }
 }
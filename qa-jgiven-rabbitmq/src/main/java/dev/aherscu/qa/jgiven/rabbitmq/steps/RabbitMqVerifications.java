@@ -16,6 +16,7 @@
 
 package dev.aherscu.qa.jgiven.rabbitmq.steps;
 
+import java.util.concurrent.*;
 import java.util.stream.*;
 
 import org.hamcrest.*;
@@ -25,6 +26,7 @@ import com.tngtech.jgiven.annotation.*;
 import dev.aherscu.qa.jgiven.commons.steps.*;
 import dev.aherscu.qa.jgiven.rabbitmq.model.*;
 import dev.aherscu.qa.jgiven.rabbitmq.utils.*;
+import lombok.*;
 import lombok.extern.slf4j.*;
 
 @Slf4j
@@ -41,12 +43,64 @@ public class RabbitMqVerifications<K, V, SELF extends RabbitMqVerifications<K, V
             matcher);
     }
 
+    /**
+     * Waits for a message with specified key to arrive, then verifies it. The
+     * message is retrieved again upon mismatch, since a newer message with same
+     * key might arrive. Its arrival only cuts short the waits between attempts,
+     * all of which are bounded by the configured poll timeout.
+     *
+     * @param key
+     *            the message key
+     * @param matcher
+     *            the matcher
+     * @return {@link #self()}
+     */
     public SELF the_message_with_$_key(
         final K key,
         final Matcher<Message<V>> matcher) {
-        log.debug("retrieving message by {}", key);
+        log.debug("awaiting message by {}", key);
+        val arrival = queueHandler.messageStore.awaiting(key);
+        try {
+            return eventually_assert_that(() -> {
+                awaitQuietly(arrival);
+                return queueHandler.messageStore.get(key);
+            }, matcher);
+        } finally {
+            // NOTE stops awaiting a message that did not arrive in time
+            arrival.cancel(false);
+        }
+    }
+
+    /**
+     * Verifies messages retrieved by a secondary index of the message store.
+     *
+     * @param index
+     *            the name of index, as configured on
+     *            {@link CachingMessageStore}
+     * @param value
+     *            the indexed value
+     * @param matcher
+     *            the matcher
+     * @return {@link #self()}
+     */
+    public SELF the_messages_with_$_index_$(
+        final String index,
+        final Object value,
+        final Matcher<Stream<Message<V>>> matcher) {
+        log.debug("retrieving messages by {}={}", index, value);
         return eventually_assert_that(
-            () -> queueHandler.recievedMessages().get(key),
+            () -> queueHandler.messageStore.indexed(index, value),
             matcher);
     }
+
+    private static void awaitQuietly(final Future<?> arrival) {
+        try {
+            arrival.get(pollDelay.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (final TimeoutException | ExecutionException
+            | CancellationException e) {
+            log.trace("message did not arrive yet");
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
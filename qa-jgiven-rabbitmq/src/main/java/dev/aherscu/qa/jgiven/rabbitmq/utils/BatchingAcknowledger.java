@@ -0,0 +1,144 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.jgiven.rabbitmq.utils;
+
+import static java.util.Objects.*;
+
+import java.io.*;
+import java.time.*;
+import java.util.concurrent.*;
+
+import com.rabbitmq.client.*;
+
+import lombok.*;
+import lombok.extern.slf4j.*;
+
+/**
+ * Acknowledges deliveries in batches, using {@code multiple=true}, whenever a
+ * count threshold is reached or, if an interval was specified, when the
+ * interval elapses, whichever comes first.
+ *
+ * <p>
+ * Acknowledgements are serialized on this object, since they might be issued by
+ * the consumer thread and by the timer thread.
+ * </p>
+ */
+@Slf4j
+final class BatchingAcknowledger implements AutoCloseable {
+    private final Channel                  channel;
+    private final int                      batchSize;
+    private final ScheduledExecutorService timer;
+    private long                           lastDeliveryTag;
+    private int                            pending;
+
+    /**
+     * @param channel
+     *            the channel on which deliveries were received
+     * @param batchSize
+     *            number of deliveries to acknowledge at once; 1 means
+     *            acknowledging each delivery separately
+     * @param interval
+     *            maximum time to keep deliveries unacknowledged; if null, only
+     *            the batch size is considered
+     */
+    BatchingAcknowledger(
+        final Channel channel,
+        final int batchSize,
+        final Duration interval) {
+        this.channel = channel;
+        this.batchSize = Math.max(1, batchSize);
+        if (this.batchSize > 1 && nonNull(interval)) {
+            timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                val thread = new Thread(runnable, "rabbitmq-acknowledger");
+                thread.setDaemon(true);
+                return thread;
+            });
+            timer.scheduleWithFixedDelay(this::flushQuietly,
+                interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        } else
+            timer = null;
+    }
+
+    /**
+     * Acknowledges all pending deliveries and stops the timer.
+     *
+     * @throws IOException
+     *             upon connection failures
+     */
+    @Override
+    public void close() throws IOException {
+        if (nonNull(timer))
+            timer.shutdown();
+        flush();
+    }
+
+    /**
+     * Marks a delivery as processed, acknowledging it along with all pending
+     * ones if the batch size was reached.
+     *
+     * @param deliveryTag
+     *            the delivery tag
+     * @throws IOException
+     *             upon connection failures
+     */
+    synchronized void ack(final long deliveryTag) throws IOException {
+        lastDeliveryTag = deliveryTag;
+        if (++pending >= batchSize)
+            flush();
+    }
+
+    /**
+     * Rejects a delivery, after acknowledging all pending ones, so these are
+     * not affected by the rejection.
+     *
+     * @param deliveryTag
+     *            the delivery tag
+     * @param requeue
+     *            whether to requeue the delivery
+     * @throws IOException
+     *             upon connection failures
+     */
+    synchronized void reject(final long deliveryTag, final boolean requeue)
+        throws IOException {
+        flush();
+        channel.basicReject(deliveryTag, requeue);
+    }
+
+    /**
+     * Acknowledges all pending deliveries.
+     *
+     * @throws IOException
+     *             upon connection failures
+     */
+    synchronized void flush() throws IOException {
+        if (0 == pending)
+            return;
+        log.trace("acknowledging {} deliveries up to {}",
+            pending, lastDeliveryTag);
+        channel.basicAck(lastDeliveryTag, pending > 1);
+        pending = 0;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (final IOException | AlreadyClosedException e) {
+            log.warn("failed to acknowledge {}", e.toString());
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.jgiven.rabbitmq.utils;
+
+import static java.util.Collections.*;
+import static java.util.Objects.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+import com.google.common.cache.*;
+
+import dev.aherscu.qa.jgiven.rabbitmq.model.*;
+import lombok.*;
+import lombok.extern.slf4j.*;
+
+/**
+ * Message store backed by a Guava cache, optionally evicting messages by size
+ * and by age, and optionally maintaining secondary indexes.
+ *
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * CachingMessageStore.<String, YourContentType> builder()
+ *     .maximumSize(100_000L)
+ *     .expireAfterWrite(Duration.ofMinutes(10))
+ *     .index("correlationId", message -> message.properties.getCorrelationId())
+ *     .build()
+ * </pre>
+ *
+ * Without any limits, it behaves as an unbounded map.
+ * </p>
+ *
+ * @param <K>
+ *            type of message-key
+ * @param <V>
+ *            type of message-value
+ */
+@Slf4j
+public final class CachingMessageStore<K, V> implements MessageStore<K, V> {
+    private final Cache<K, Message<V>>                       messages;
+    private final Map<String, Function<Message<V>, ?>>       indexingBy;
+    private final Map<String, ConcurrentMap<Object, Set<K>>> indexes;
+    private final ConcurrentMap<K, Arrival<V>>               waiting =
+        new ConcurrentHashMap<>();
+
+    /**
+     * Shared arrival of a message, counting the callers still waiting for it.
+     * The count is only changed while holding the map entry.
+     */
+    private static final class Arrival<V> {
+        final CompletableFuture<Message<V>> future = new CompletableFuture<>();
+        int                                 callers;
+    }
+
+    /**
+     * @param maximumSize
+     *            maximum number of messages to keep; unbounded if null
+     * @param expireAfterWrite
+     *            maximum age of messages to keep; unbounded if null
+     * @param indexes
+     *            secondary indexes by name, each extracting the indexed value
+     *            from a message, usually from its properties; null values are
+     *            not indexed
+     */
+    @Builder
+    private CachingMessageStore(
+        final Long maximumSize,
+        final Duration expireAfterWrite,
+        @Singular("index") final Map<String, Function<Message<V>, ?>> indexes) {
+        this.indexingBy = indexes;
+        this.indexes = indexes.keySet().stream()
+            .collect(Collectors.toUnmodifiableMap(Function.identity(),
+                name -> new ConcurrentHashMap<Object, Set<K>>()));
+
+        val cacheBuilder = CacheBuilder.newBuilder();
+        if (nonNull(maximumSize))
+            cacheBuilder.maximumSize(maximumSize);
+        if (nonNull(expireAfterWrite))
+            cacheBuilder.expireAfterWrite(expireAfterWrite);
+        this.messages = cacheBuilder
+            .<K, Message<V>> removalListener(notification -> {
+                // NOTE replacements are un-indexed by put
+                if (notification.wasEvicted()) {
+                    log.trace("evicted {}", notification.getKey());
+                    unindex(notification.getKey(), notification.getValue());
+                }
+            })
+            .build();
+    }
+
+    /**
+     * @param <K>
+     *            type of message-key
+     * @param <V>
+     *            type of message-value
+     * @return an unbounded store without secondary indexes
+     */
+    public static <K, V> CachingMessageStore<K, V> unbounded() {
+        return CachingMessageStore.<K, V> builder().build();
+    }
+
+    @Override
+    public void put(final K key, final Message<V> message) {
+        val previous = messages.asMap().put(key, message);
+        if (nonNull(previous))
+            unindex(key, previous);
+        index(key, message);
+
+        val arrival = waiting.remove(key);
+        if (nonNull(arrival))
+            arrival.future.complete(message);
+    }
+
+    @Override
+    public Message<V> get(final K key) {
+        return messages.getIfPresent(key);
+    }
+
+    @Override
+    public Map<K, Message<V>> asMap() {
+        return unmodifiableMap(messages.asMap());
+    }
+
+    @Override
+    public Stream<Message<V>> indexed(final String index, final Object value) {
+        val keysByValue = indexes.get(index);
+        if (isNull(keysByValue))
+            throw new IllegalArgumentException("no such index " + index);
+        return keysByValue.getOrDefault(value, emptySet()).stream()
+            .map(messages::getIfPresent)
+            .filter(Objects::nonNull);
+    }
+
+    @Override
+    public CompletableFuture<Message<V>> awaiting(final K key) {
+        val arrival = waiting.compute(key, (k, existing) -> {
+            val shared = isNull(existing) ? new Arrival<V>() : existing;
+            shared.callers++;
+            return shared;
+        });
+        // NOTE each caller gets its own dependent future, hence cancelling
+        // or timing it out does not affect other callers
+        val future = arrival.future.thenApply(Function.<Message<V>> identity());
+        // NOTE the message might have been stored before registering
+        val message = get(key);
+        if (nonNull(message)) {
+            waiting.remove(key, arrival);
+            arrival.future.complete(message);
+        } else
+            // NOTE e.g. on timeout, or when cancelled by caller; the shared
+            // arrival is dropped with its last caller, since a message that
+            // never arrives would never complete it
+            future.whenComplete((m, t) -> {
+                if (nonNull(t))
+                    waiting.computeIfPresent(key,
+                        (k, existing) -> existing == arrival
+                            && --existing.callers == 0 ? null : existing);
+            });
+        return future;
+    }
+
+    /**
+     * @param key
+     *            the key
+     * @return whether some caller still awaits a message with specified key
+     */
+    boolean isAwaited(final K key) {
+        return waiting.containsKey(key);
+    }
+
+    private void index(final K key, final Message<V> message) {
+        indexingBy.forEach((name, indexing) -> {
+            val value = indexing.apply(message);
+            if (nonNull(value))
+                indexes.get(name).compute(value, (v, keys) -> {
+                    final Set<K> indexedKeys = isNull(keys)
+                        ? ConcurrentHashMap.newKeySet()
+                        : keys;
+                    indexedKeys.add(key);
+                    return indexedKeys;
+                });
+        });
+    }
+
+    private void unindex(final K key, final Message<V> message) {
+        indexingBy.forEach((name, indexing) -> {
+            val value = indexing.apply(message);
+            if (nonNull(value))
+                indexes.get(name).computeIfPresent(value, (v, keys) -> {
+                    keys.remove(key);
+                    return keys.isEmpty() ? null : keys;
+                });
+        });
+    }
+}
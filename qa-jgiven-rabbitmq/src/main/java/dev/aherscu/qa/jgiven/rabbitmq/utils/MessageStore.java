@@ -0,0 +1,89 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.jgiven.rabbitmq.utils;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
+
+import dev.aherscu.qa.jgiven.rabbitmq.model.*;
+
+/**
+ * Holds the messages received by a {@link QueueHandler}.
+ *
+ * <p>
+ * Implementations must be thread-safe, since messages are stored by the
+ * consumer thread while being retrieved by verification threads.
+ * </p>
+ *
+ * @param <K>
+ *            type of message-key
+ * @param <V>
+ *            type of message-value
+ */
+public interface MessageStore<K, V> {
+    /**
+     * Stores a message, replacing any previous message with same key.
+     *
+     * @param key
+     *            the key
+     * @param message
+     *            the message
+     */
+    void put(K key, Message<V> message);
+
+    /**
+     * @param key
+     *            the key
+     * @return the message, or {@code null} if there is no such message
+     */
+    Message<V> get(K key);
+
+    /**
+     * @return unmodifiable view of stored messages
+     */
+    Map<K, Message<V>> asMap();
+
+    /**
+     * Retrieves messages by a secondary index.
+     *
+     * @param index
+     *            the name of index
+     * @param value
+     *            the indexed value
+     * @return stream of matching messages, possibly empty
+     * @throws IllegalArgumentException
+     *             if there is no such index
+     */
+    Stream<Message<V>> indexed(String index, Object value);
+
+    /**
+     * Returns a future completing when a message with specified key is stored,
+     * or immediately if such a message is already stored.
+     *
+     * <p>
+     * Callers should bound their wait, e.g. via
+     * {@link CompletableFuture#orTimeout(long, TimeUnit)}, since the message
+     * might never arrive.
+     * </p>
+     *
+     * @param key
+     *            the key
+     * @return future of message
+     */
+    CompletableFuture<Message<V>> awaiting(K key);
+}
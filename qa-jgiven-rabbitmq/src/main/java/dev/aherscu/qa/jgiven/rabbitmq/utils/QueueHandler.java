@@ -18,10 +18,10 @@ package dev.aherscu.qa.jgiven.rabbitmq.utils;
 
 import static com.google.common.base.Suppliers.*;
 import static java.lang.Runtime.*;
-import static java.util.Collections.*;
 import static java.util.Objects.*;
 
 import java.io.*;
+import java.time.*;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.function.*;
@@ -33,6 +33,7 @@ import org.jooq.lambda.*;
 import com.rabbitmq.client.*;
 import com.rabbitmq.client.impl.*;
 
+import dev.aherscu.qa.jgiven.commons.utils.*;
 import dev.aherscu.qa.jgiven.rabbitmq.model.*;
 import lombok.*;
 import lombok.experimental.*;
@@ -68,6 +69,15 @@ import lombok.extern.slf4j.*;
 @SuperBuilder
 @Slf4j
 public class QueueHandler<K, V> implements AutoCloseable {
+    /**
+     * Default maximum number of unacknowledged deliveries.
+     */
+    public static final int DEFAULT_PREFETCH       = 16;
+    /**
+     * Default number of deliveries to acknowledge at once.
+     */
+    public static final int DEFAULT_ACK_BATCH_SIZE = 1;
+
     /**
      * Utility for building a singleton QueueHandler.
      *
@@ -118,6 +128,30 @@ public class QueueHandler<K, V> implements AutoCloseable {
         public final Function<Message<V>, K> indexingBy;
         public final Function<byte[], V>     consumingBy;
         public final Function<V, byte[]>     publishingBy;
+        /**
+         * Number of publishing channels; defaults to
+         * {@link QueuePublisher#DEFAULT_CHANNELS}.
+         */
+        public final Integer                 publishingChannels;
+        /**
+         * Maximum number of messages awaiting broker confirmation; defaults to
+         * {@link QueuePublisher#DEFAULT_MAX_OUTSTANDING_CONFIRMS}.
+         */
+        public final Integer                 maxOutstandingConfirms;
+        /**
+         * Holds received messages; defaults to an unbounded store.
+         */
+        public final MessageStore<K, V>      messageStore;
+        /**
+         * Maximum number of unacknowledged deliveries; defaults to
+         * {@link QueueHandler#DEFAULT_PREFETCH}.
+         */
+        public final Integer                 prefetch;
+        /**
+         * Number of deliveries to acknowledge at once; defaults to
+         * {@link QueueHandler#DEFAULT_ACK_BATCH_SIZE}.
+         */
+        public final Integer                 ackBatchSize;
 
         /**
          * @return a memoized supplier of QueueHandler
@@ -131,11 +165,23 @@ public class QueueHandler<K, V> implements AutoCloseable {
                     connection = connectionFactory.newConnection();
                     log.debug("setting-up queue handler");
                     queueHandler = QueueHandler.<K, V> builder()
+                        .messageStore(isNull(messageStore)
+                            ? CachingMessageStore.unbounded()
+                            : messageStore)
+                        .prefetch(
+                            requireNonNullElse(prefetch, DEFAULT_PREFETCH))
+                        .ackBatchSize(requireNonNullElse(ackBatchSize,
+                            DEFAULT_ACK_BATCH_SIZE))
                         .channel(connection.createChannel())
                         .queue(queue)
                         .indexingBy(indexingBy)
                         .consumingBy(consumingBy)
                         .publishingBy(publishingBy)
+                        .publisher(QueuePublisher.builder()
+                            .connection(connection)
+                            .channels(publishingChannels)
+                            .maxOutstandingConfirms(maxOutstandingConfirms)
+                            .build())
                         .build();
                 } catch (final IOException | TimeoutException e) {
                     throw new RuntimeException(e);
@@ -147,7 +193,8 @@ public class QueueHandler<K, V> implements AutoCloseable {
                     // see
                     // https://www.rabbitmq.com/amqp-0-9-1-reference.html#queue.purge
                     try {
-                        log.debug("closing connection");
+                        log.debug("closing publisher and connection");
+                        queueHandler.publisher.close();
                         connection.close();
                     } catch (final IOException ioe) {
                         log.warn("connection already closed {}",
@@ -159,16 +206,46 @@ public class QueueHandler<K, V> implements AutoCloseable {
         }
     }
 
-    public final Channel                       channel;
-    public final String                        queue;
-    public final Function<Message<V>, K>       indexingBy;
-    public final Function<byte[], V>           consumingBy;
-    public final Function<V, byte[]>           publishingBy;
+    public final Channel                 channel;
+    public final String                  queue;
+    public final Function<Message<V>, K> indexingBy;
+    public final Function<byte[], V>     consumingBy;
+    public final Function<V, byte[]>     publishingBy;
+    /**
+     * Optional confirming publisher; if not set, messages are published
+     * sequentially on {@link #channel} without waiting for confirms.
+     */
+    public final QueuePublisher          publisher;
 
-    // TODO allow subclasses to provide their own data-structure, e.g. a cache
-    private final ConcurrentMap<K, Message<V>> recievedMessages =
-        new ConcurrentHashMap<>();
-    private String                             consumerTag;
+    /**
+     * Holds received messages; defaults to an unbounded store.
+     */
+    @Builder.Default
+    public final MessageStore<K, V>      messageStore =
+        CachingMessageStore.unbounded();
+    /**
+     * Maximum number of unacknowledged deliveries; defaults to
+     * {@link #DEFAULT_PREFETCH}.
+     */
+    @Builder.Default
+    public final int                     prefetch     = DEFAULT_PREFETCH;
+    /**
+     * Number of deliveries to acknowledge at once; defaults to
+     * {@link #DEFAULT_ACK_BATCH_SIZE}, that is acknowledging each delivery
+     * separately.
+     */
+    @Builder.Default
+    public final int                     ackBatchSize =
+        DEFAULT_ACK_BATCH_SIZE;
+    /**
+     * Maximum time to keep processed deliveries unacknowledged when batching;
+     * defaults to 1 second.
+     */
+    @Builder.Default
+    public final Duration                ackInterval  =
+        Duration.ofSeconds(1);
+    private String                       consumerTag;
+    private BatchingAcknowledger         acknowledger;
 
     /**
      * @param uri
@@ -200,6 +277,7 @@ public class QueueHandler<K, V> implements AutoCloseable {
         }
         log.debug("cancelling consumer by tag {}", consumerTag);
         channel.basicCancel(consumerTag);
+        acknowledger.close();
         return consumerTag;
     }
 
@@ -223,7 +301,14 @@ public class QueueHandler<K, V> implements AutoCloseable {
      */
     @SneakyThrows
     public String consume() {
-        channel.basicQos(16);
+        // NOTE should be less than prefetch, otherwise the broker stops
+        // delivering until the interval elapses
+        if (ackBatchSize >= prefetch)
+            log.warn("acknowledgement batch size {} should be less than"
+                + " prefetch {}", ackBatchSize, prefetch);
+        acknowledger =
+            new BatchingAcknowledger(channel, ackBatchSize, ackInterval);
+        channel.basicQos(prefetch);
         consumerTag = channel.basicConsume(queue,
             new DefaultConsumer(channel) {
                 @Override
@@ -243,11 +328,12 @@ public class QueueHandler<K, V> implements AutoCloseable {
                         log.trace("received {}", key);
                     } catch (final Exception e) {
                         log.warn("skipping unknown type {}", e.getMessage());
-                        channel.basicReject(envelope.getDeliveryTag(), true);
+                        acknowledger.reject(envelope.getDeliveryTag(), true);
                         return;
                     }
-                    recievedMessages.put(key, message);
-                    channel.basicAck(envelope.getDeliveryTag(), false);
+                    messageStore.put(key, message);
+                    StateChanges.signal();
+                    acknowledger.ack(envelope.getDeliveryTag());
                 }
             });
 
@@ -255,8 +341,34 @@ public class QueueHandler<K, V> implements AutoCloseable {
         return consumerTag;
     }
 
+    /**
+     * Publishes specified messages to {@link #queue}.
+     *
+     * <p>
+     * If a {@link #publisher} was set, then messages are published on its
+     * channels, concurrently if the stream is parallel, and this method returns
+     * only after all were confirmed by the broker. Otherwise, messages are
+     * published sequentially on {@link #channel}, since channels must not be
+     * used concurrently.
+     * </p>
+     *
+     * @param messages
+     *            the messages
+     * @throws RuntimeException
+     *             upon connection failures, or if not all messages were
+     *             confirmed
+     */
     public void publish(final Stream<Message<V>> messages) {
-        messages.parallel()
+        if (nonNull(publisher)) {
+            publisher.publish(queue, messages
+                .map(message -> Message.<byte[]> builder()
+                    .properties(message.properties)
+                    .content(publishingBy.apply(message.content))
+                    .build()));
+            return;
+        }
+
+        messages.sequential()
             .peek(message -> log.trace("publishing {}", message))
             .forEach(Unchecked.consumer(
                 message -> channel.basicPublish(StringUtils.EMPTY, queue,
@@ -274,6 +386,6 @@ public class QueueHandler<K, V> implements AutoCloseable {
      * @return the messages
      */
     public Map<K, Message<V>> recievedMessages() {
-        return unmodifiableMap(recievedMessages);
+        return messageStore.asMap();
     }
 }
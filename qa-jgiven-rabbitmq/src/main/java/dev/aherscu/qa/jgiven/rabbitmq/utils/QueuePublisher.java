@@ -0,0 +1,318 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.jgiven.rabbitmq.utils;
+
+import static java.lang.Runtime.*;
+import static java.util.Objects.*;
+
+import java.io.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
+
+import org.apache.commons.lang3.*;
+
+import com.rabbitmq.client.*;
+
+import dev.aherscu.qa.jgiven.rabbitmq.model.*;
+import lombok.*;
+import lombok.extern.slf4j.*;
+
+/**
+ * Thread-safe publisher, pipelining messages over a pool of channels in
+ * publisher confirms mode.
+ *
+ * <p>
+ * RabbitMQ channels must not be shared between publishing threads, hence each
+ * message is published on a channel exclusively borrowed from the pool. The
+ * number of messages not yet confirmed by the broker is bounded by
+ * {@link #maxOutstandingConfirms}; confirms are handled asynchronously, and
+ * since the broker may confirm many messages at once, a single confirm may
+ * release many outstanding messages.
+ * </p>
+ *
+ * <p>
+ * Confirms are tracked per {@link #publish(String, Stream)} call, hence
+ * concurrent calls wait only for their own messages, and fail only upon their
+ * own messages being rejected. Messages outstanding on a channel that shuts
+ * down are considered rejected.
+ * </p>
+ *
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * try (val publisher = QueuePublisher.builder()
+ *     .connection(connection)
+ *     .channels(4)
+ *     .maxOutstandingConfirms(1000)
+ *     .build()) {
+ *     publisher.publish(queue, messages);
+ * }
+ * </pre>
+ * </p>
+ */
+@Slf4j
+public final class QueuePublisher implements AutoCloseable {
+    /**
+     * Default number of channels in pool.
+     */
+    public static final int                        DEFAULT_CHANNELS                 =
+        getRuntime().availableProcessors();
+    /**
+     * Default number of published but not yet confirmed messages.
+     */
+    public static final int                        DEFAULT_MAX_OUTSTANDING_CONFIRMS =
+        1000;
+    /**
+     * Default time to wait for all confirms at end of publishing.
+     */
+    public static final Duration                   DEFAULT_CONFIRM_TIMEOUT          =
+        Duration.ofSeconds(30);
+
+    public final int                               maxOutstandingConfirms;
+    public final Duration                          confirmTimeout;
+    private final BlockingQueue<ConfirmingChannel> channels;
+    private final Semaphore                        outstanding;
+
+    /**
+     * @param connection
+     *            the connection on which to open the channels
+     * @param channels
+     *            number of channels to open; defaults to
+     *            {@link #DEFAULT_CHANNELS}
+     * @param maxOutstandingConfirms
+     *            maximum number of published messages awaiting broker
+     *            confirmation; defaults to
+     *            {@link #DEFAULT_MAX_OUTSTANDING_CONFIRMS}
+     * @param confirmTimeout
+     *            maximum time to wait for all confirms at end of
+     *            {@link #publish(String, Stream)}; defaults to
+     *            {@link #DEFAULT_CONFIRM_TIMEOUT}
+     * @throws RuntimeException
+     *             upon connection failures
+     */
+    @Builder
+    @SneakyThrows
+    private QueuePublisher(
+        final Connection connection,
+        final Integer channels,
+        final Integer maxOutstandingConfirms,
+        final Duration confirmTimeout) {
+        this.maxOutstandingConfirms = requireNonNullElse(
+            maxOutstandingConfirms, DEFAULT_MAX_OUTSTANDING_CONFIRMS);
+        this.confirmTimeout =
+            requireNonNullElse(confirmTimeout, DEFAULT_CONFIRM_TIMEOUT);
+        this.outstanding = new Semaphore(this.maxOutstandingConfirms);
+        val channelCount = requireNonNullElse(channels, DEFAULT_CHANNELS);
+        this.channels = new ArrayBlockingQueue<>(channelCount);
+        log.debug("opening {} confirming channels", channelCount);
+        for (int i = 0; i < channelCount; i++) {
+            this.channels
+                .add(new ConfirmingChannel(connection.createChannel()));
+        }
+    }
+
+    /**
+     * Closes all pooled channels.
+     */
+    @Override
+    public void close() {
+        channels.forEach(confirmingChannel -> {
+            try {
+                confirmingChannel.channel.close();
+            } catch (final IOException | TimeoutException
+                | AlreadyClosedException e) {
+                log.warn("channel already closed {}", e.toString());
+            }
+        });
+    }
+
+    /**
+     * Publishes specified messages via the default exchange and waits for all
+     * of them to be confirmed by the broker.
+     *
+     * <p>
+     * The stream may be parallel, in which case messages are published
+     * concurrently on different channels.
+     * </p>
+     *
+     * @param queue
+     *            the queue to publish to
+     * @param messages
+     *            the messages, already serialized
+     * @throws RuntimeException
+     *             upon connection failures, upon negative confirms, or if
+     *             confirms did not arrive in {@link #confirmTimeout}
+     */
+    @SneakyThrows
+    public void publish(final String queue,
+        final Stream<Message<byte[]>> messages) {
+        val confirms = new Confirms();
+
+        messages.forEach(message -> publish(queue, message, confirms));
+
+        log.trace("waiting for outstanding confirms");
+        if (!confirms.await(confirmTimeout))
+            throw new TimeoutException(
+                "confirms did not arrive in " + confirmTimeout);
+
+        val nacked = confirms.nacked();
+        if (nacked > 0)
+            throw new IOException("broker rejected " + nacked + " messages");
+    }
+
+    @SneakyThrows
+    private void publish(final String queue, final Message<byte[]> message,
+        final Confirms confirms) {
+        log.trace("publishing {}", message);
+        outstanding.acquire();
+        final ConfirmingChannel confirmingChannel;
+        try {
+            confirmingChannel = channels.take();
+        } catch (final InterruptedException e) {
+            outstanding.release();
+            throw e;
+        }
+        try {
+            // NOTE releases the outstanding permit once settled
+            confirmingChannel.publish(queue, message, confirms);
+        } finally {
+            channels.put(confirmingChannel);
+        }
+    }
+
+    /**
+     * Tracks the confirms of messages published by one
+     * {@link #publish(String, Stream)} call.
+     */
+    private static final class Confirms {
+        private int  unsettled;
+        private long nacked;
+
+        synchronized void published() {
+            unsettled++;
+        }
+
+        synchronized void settled(final boolean acked) {
+            if (!acked)
+                nacked++;
+            if (0 == --unsettled)
+                notifyAll();
+        }
+
+        synchronized long nacked() {
+            return nacked;
+        }
+
+        synchronized boolean await(final Duration timeout)
+            throws InterruptedException {
+            val deadline = System.nanoTime() + timeout.toNanos();
+            while (unsettled > 0) {
+                val remaining = deadline - System.nanoTime();
+                if (remaining <= 0)
+                    return false;
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Tracks the sequence numbers published on a channel until confirmed.
+     *
+     * <p>
+     * Each sequence number is settled exactly once, by whoever removes it
+     * first: a confirm, a channel shutdown, or a failed publish.
+     * </p>
+     */
+    private final class ConfirmingChannel
+        implements ConfirmListener, ShutdownListener {
+        final Channel                                channel;
+        final ConcurrentNavigableMap<Long, Confirms> unconfirmed =
+            new ConcurrentSkipListMap<>();
+
+        ConfirmingChannel(final Channel channel) throws IOException {
+            this.channel = channel;
+            channel.confirmSelect();
+            channel.addConfirmListener(this);
+            channel.addShutdownListener(this);
+        }
+
+        @Override
+        public void handleAck(final long deliveryTag, final boolean multiple) {
+            confirmed(deliveryTag, multiple, true);
+        }
+
+        @Override
+        public void handleNack(final long deliveryTag,
+            final boolean multiple) {
+            log.warn("broker rejected up to {}", deliveryTag);
+            confirmed(deliveryTag, multiple, false);
+        }
+
+        @Override
+        public void shutdownCompleted(final ShutdownSignalException cause) {
+            log.warn("channel shut down with {} unconfirmed messages: {}",
+                unconfirmed.size(), cause.getMessage());
+            // NOTE these will never be confirmed
+            for (Map.Entry<Long, Confirms> entry; nonNull(
+                entry = unconfirmed.pollFirstEntry());)
+                settle(entry.getValue(), false);
+        }
+
+        void publish(final String queue, final Message<byte[]> message,
+            final Confirms confirms) throws IOException {
+            val sequenceNumber = channel.getNextPublishSeqNo();
+            confirms.published();
+            unconfirmed.put(sequenceNumber, confirms);
+            try {
+                channel.basicPublish(StringUtils.EMPTY, queue,
+                    message.properties, message.content);
+            } catch (final IOException | RuntimeException e) {
+                // NOTE not rejected by broker, but the caller gets the
+                // exception
+                if (nonNull(unconfirmed.remove(sequenceNumber)))
+                    settle(confirms, true);
+                throw e;
+            }
+        }
+
+        private void confirmed(final long deliveryTag, final boolean multiple,
+            final boolean acked) {
+            if (multiple) {
+                for (Map.Entry<Long, Confirms> entry; nonNull(
+                    entry = unconfirmed.firstEntry())
+                    && entry.getKey() <= deliveryTag;) {
+                    // NOTE might have been settled concurrently
+                    if (unconfirmed.remove(entry.getKey(), entry.getValue()))
+                        settle(entry.getValue(), acked);
+                }
+            } else {
+                val confirms = unconfirmed.remove(deliveryTag);
+                if (nonNull(confirms))
+                    settle(confirms, acked);
+            }
+        }
+
+        private void settle(final Confirms confirms, final boolean acked) {
+            confirms.settled(acked);
+            outstanding.release();
+        }
+    }
+}
@@ -76,9 +76,12 @@ public class IndexedRabbitMqTest
     protected void beforeMethodInitiateQueueHandler() {
         // according to docs channels are closed when connection is closed
         val testingChannel = connection.createChannel();
+        val testingQueue = testingChannel.queueDeclare().getQueue();
         queueHandler = QueueHandler.<String, String> builder()
             .channel(testingChannel)
-            .queue(testingChannel.queueDeclare().getQueue())
+            .queue(testingQueue)
+            .prefetch(configuration().prefetch(testingQueue))
+            .ackBatchSize(configuration().ackBatchSize(testingQueue))
             .indexingBy(message -> message.properties.getMessageId())
             .consumingBy(bytes -> new String(bytes, UTF_8))
             .publishingBy(String::getBytes)
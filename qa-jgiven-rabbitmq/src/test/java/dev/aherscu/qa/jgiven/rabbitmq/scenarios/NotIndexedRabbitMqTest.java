@@ -67,9 +67,12 @@ public class NotIndexedRabbitMqTest
         @SuppressWarnings("resource")
         // according to docs channels are closed when connection is closed
         val testingChannel = connection.createChannel();
+        val testingQueue = testingChannel.queueDeclare().getQueue();
         queueHandler = QueueHandler.<Integer, String> builder()
             .channel(testingChannel)
-            .queue(testingChannel.queueDeclare().getQueue())
+            .queue(testingQueue)
+            .prefetch(configuration().prefetch(testingQueue))
+            .ackBatchSize(configuration().ackBatchSize(testingQueue))
             .indexingBy(message -> message.content.hashCode())
             .consumingBy(bytes -> new String(bytes, UTF_8))
             .publishingBy(String::getBytes)
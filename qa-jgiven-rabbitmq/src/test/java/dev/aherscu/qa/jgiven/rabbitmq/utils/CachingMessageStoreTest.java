@@ -0,0 +1,125 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.jgiven.rabbitmq.utils;
+
+import static java.util.stream.Collectors.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.util.concurrent.*;
+
+import org.testng.annotations.*;
+
+import com.rabbitmq.client.*;
+
+import dev.aherscu.qa.jgiven.rabbitmq.model.*;
+import lombok.*;
+
+public class CachingMessageStoreTest {
+
+    private static Message<String> message(
+        final String content,
+        final String correlationId) {
+        return Message.<String> builder()
+            .content(content)
+            .properties(new AMQP.BasicProperties().builder()
+                .correlationId(correlationId)
+                .build())
+            .build();
+    }
+
+    @Test
+    public void shouldEvictBySize() {
+        val store = CachingMessageStore.<Integer, String> builder()
+            .maximumSize(10L)
+            .build();
+
+        for (int i = 0; i < 100; i++)
+            store.put(i, message("content-" + i, null));
+
+        assertThat(store.asMap().size(), lessThanOrEqualTo(10));
+    }
+
+    @Test
+    public void shouldRetrieveByIndex() {
+        val store = CachingMessageStore.<Integer, String> builder()
+            .index("correlationId",
+                message -> message.properties.getCorrelationId())
+            .build();
+
+        store.put(1, message("a", "x"));
+        store.put(2, message("b", "y"));
+        store.put(3, message("c", "x"));
+        // NOTE replacing should re-index
+        store.put(3, message("c", "y"));
+
+        assertThat(store.indexed("correlationId", "x")
+            .map(message -> message.content)
+            .collect(toList()),
+            contains("a"));
+        assertThat(store.indexed("correlationId", "y")
+            .map(message -> message.content)
+            .collect(toSet()),
+            containsInAnyOrder("b", "c"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldFailOnMissingIndex() {
+        CachingMessageStore.<Integer, String> unbounded()
+            .indexed("missing", "x");
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldCompleteAwaitingUponArrival() {
+        val store = CachingMessageStore.<Integer, String> unbounded();
+        val future = store.awaiting(1);
+
+        assertThat(future.isDone(), is(false));
+
+        store.put(1, message("a", null));
+
+        assertThat(future.get(1, TimeUnit.SECONDS).content, is("a"));
+        assertThat(store.awaiting(1).isDone(), is(true));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldCompleteOtherCallersWhenOneCancels() {
+        val store = CachingMessageStore.<Integer, String> unbounded();
+        val cancelled = store.awaiting(1);
+        val waiting = store.awaiting(1);
+
+        cancelled.cancel(false);
+        store.put(1, message("a", null));
+
+        assertThat(waiting.get(1, TimeUnit.SECONDS).content, is("a"));
+    }
+
+    @Test
+    public void shouldStopAwaitingWhenAllCallersGiveUp() {
+        val store = CachingMessageStore.<Integer, String> unbounded();
+        val first = store.awaiting(1);
+        val second = store.awaiting(1);
+
+        first.cancel(false);
+        assertThat(store.isAwaited(1), is(true));
+
+        second.completeExceptionally(new TimeoutException());
+        assertThat(store.isAwaited(1), is(false));
+    }
+}
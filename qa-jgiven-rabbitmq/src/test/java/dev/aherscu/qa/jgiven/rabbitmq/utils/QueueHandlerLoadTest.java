@@ -21,9 +21,12 @@ import static java.nio.charset.StandardCharsets.*;
 import static java.util.concurrent.CompletableFuture.*;
 import static java.util.concurrent.CompletableFuture.allOf;
 import static java.util.stream.IntStream.*;
+import static org.apache.commons.lang3.StringUtils.*;
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.Matchers.*;
 
+import java.time.*;
+import java.util.concurrent.atomic.*;
 import java.util.stream.*;
 
 import org.apache.commons.lang3.*;
@@ -33,8 +36,10 @@ import com.rabbitmq.client.*;
 
 import dev.aherscu.qa.jgiven.rabbitmq.model.*;
 import lombok.*;
+import lombok.extern.slf4j.*;
 import net.jodah.failsafe.*;
 
+@Slf4j
 public class QueueHandlerLoadTest extends AbstractQueueHandlerTest {
 
     @Test
@@ -113,4 +118,120 @@ public class QueueHandlerLoadTest extends AbstractQueueHandlerTest {
                 .get();
         }
     }
+
+    @Test
+    @Parameters("message-quantity")
+    @SneakyThrows
+    public void shouldPublishManyObjectsConcurrentlyWithConfirms(
+        @Optional("1000") final int messageQuantity) {
+        try (val connection = LOCAL_RABBITMQ.newConnection();
+            val channel = connection.createChannel();
+            val publisher = QueuePublisher.builder()
+                .connection(connection)
+                .channels(4)
+                .maxOutstandingConfirms(100)
+                .build()) {
+            // NOTE not closing since nothing is consumed here
+            final QueueHandler<String, String> queueHandler =
+                QueueHandler.<String, String> builder()
+                    .channel(channel)
+                    .publisher(publisher)
+                    .queue(channel.queueDeclare().getQueue())
+                    .indexingBy(message -> message.properties.getMessageId())
+                    .consumingBy(bytes -> new String(bytes, UTF_8))
+                    .publishingBy(String::getBytes)
+                    .build();
+
+            queueHandler.publish(range(0, messageQuantity)
+                .parallel()
+                .mapToObj(String::valueOf)
+                .map(id -> Message.<String> builder()
+                    .content("any-content-" + id)
+                    .properties(new AMQP.BasicProperties().builder()
+                        .messageId(id)
+                        .build())
+                    .build()));
+
+            // NOTE all messages were confirmed, hence already enqueued
+            assertThat(channel.messageCount(queueHandler.queue),
+                is((long) messageQuantity));
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldConsumeAllWithPrefetchAndBatchedAcks() {
+        val messageQuantity = 10_000;
+        try (val connection = LOCAL_RABBITMQ.newConnection()) {
+            // NOTE warms up the broker connection and the consuming path
+            consumptionTime(connection, 256, 64, messageQuantity);
+
+            val perMessage =
+                consumptionTime(connection, 16, 1, messageQuantity);
+            val batched =
+                consumptionTime(connection, 256, 64, messageQuantity);
+
+            // NOTE wall-clock figures are informative only, since these
+            // depend on the broker and on the machine
+            log.info("consumed {} acking per message in {} ms,"
+                + " batched in {} ms",
+                messageQuantity, perMessage.toMillis(), batched.toMillis());
+        }
+    }
+
+    @SneakyThrows
+    private static Duration consumptionTime(
+        final Connection connection,
+        final int prefetch,
+        final int ackBatchSize,
+        final int messageQuantity) {
+        val deliveries = new AtomicInteger();
+        try (val control = connection.createChannel()) {
+            // NOTE not auto-deleted upon cancelling the consumer, hence
+            // remains available for checking acknowledgements
+            val queue = control.queueDeclare(EMPTY, false, true, false, null)
+                .getQueue();
+            final Duration elapsed;
+            try (val channel = connection.createChannel();
+                // NOTE lombok.val with Eclipse Java Compiler does not work
+                // here
+                final QueueHandler<String, String> queueHandler =
+                    QueueHandler.<String, String> builder()
+                        .channel(channel)
+                        .queue(queue)
+                        .prefetch(prefetch)
+                        .ackBatchSize(ackBatchSize)
+                        .indexingBy(message -> message.content)
+                        .consumingBy(bytes -> {
+                            deliveries.incrementAndGet();
+                            return new String(bytes, UTF_8);
+                        })
+                        .publishingBy(String::getBytes)
+                        .build()) {
+
+                queueHandler.publishValues(range(0, messageQuantity)
+                    .mapToObj(String::valueOf));
+
+                val started = System.nanoTime();
+                val deadline = started + Duration.ofMinutes(1).toNanos();
+                queueHandler.consume();
+                // NOTE polling without delays, which would skew the figures
+                while (queueHandler.recievedMessages()
+                    .size() < messageQuantity)
+                    if (System.nanoTime() > deadline)
+                        throw new AssertionError("consumed only "
+                            + queueHandler.recievedMessages().size());
+                    else
+                        Thread.onSpinWait();
+                elapsed = Duration.ofNanos(System.nanoTime() - started);
+            }
+
+            // NOTE closing the channel requeues any unacknowledged delivery
+            assertThat("all acknowledged",
+                control.messageCount(queue), is(0L));
+            assertThat("none redelivered",
+                deliveries.get(), is(messageQuantity));
+            return elapsed;
+        }
+    }
 }
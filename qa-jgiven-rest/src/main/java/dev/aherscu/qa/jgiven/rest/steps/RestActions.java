@@ -19,7 +19,9 @@ import static dev.aherscu.qa.testing.utils.StringUtilsExtensions.*;
 import static java.util.Objects.*;
 import static java.util.function.Function.*;
 
+import java.io.*;
 import java.net.*;
+import java.nio.charset.*;
 import java.util.function.*;
 
 import javax.annotation.concurrent.*;
@@ -30,6 +32,7 @@ import com.tngtech.jgiven.annotation.*;
 import dev.aherscu.qa.jgiven.commons.steps.*;
 import dev.aherscu.qa.jgiven.rest.formatters.*;
 import dev.aherscu.qa.jgiven.rest.model.*;
+import dev.aherscu.qa.testing.utils.*;
 import dev.aherscu.qa.testing.utils.rest.*;
 import jakarta.ws.rs.client.*;
 import jakarta.ws.rs.core.*;
@@ -50,17 +53,53 @@ import net.jodah.failsafe.*;
 @ThreadSafe
 public class RestActions<SELF extends RestActions<SELF>>
     extends GenericActions<RestScenarioType, SELF> {
+    /**
+     * Maximum number of response bytes retained for attaching, when parsing
+     * JSON responses.
+     */
+    public static final int                ATTACHED_PREFIX_BYTES =
+        64 * 1024;
     /**
      * Target ({@link WebTarget}) of Web actions in this class.
      */
-    protected final ThreadLocal<WebTarget> target          =
+    protected final ThreadLocal<WebTarget> target                =
+        new ThreadLocal<>();
+    /**
+     * Whether responses should be parsed as JSON while read.
+     *
+     * @see #parsing_JSON_responses()
+     */
+    protected final ThreadLocal<Boolean>   parsingResponses      =
+        ThreadLocal.withInitial(() -> false);
+    /**
+     * Whether the retrieved {@link Response}'s contents were parsed into
+     * {@link #responseJson}, rather than read into {@link #responseContent}.
+     */
+    @ProvidedScenarioState
+    protected final ThreadLocal<Boolean>   responseParsed        =
+        ThreadLocal.withInitial(() -> false);
+    /**
+     * The retrieved {@link Response}'s contents parsed as JSON, when parsing
+     * JSON responses; might be {@code null} if the contents were JSON
+     * {@code null}.
+     */
+    @ProvidedScenarioState
+    protected final ThreadLocal<Object>    responseJson          =
+        new ThreadLocal<>();
+    /**
+     * The first {@value #ATTACHED_PREFIX_BYTES} bytes of the retrieved
+     * {@link Response}'s contents, when parsing JSON responses; otherwise
+     * {@code null}.
+     */
+    @ProvidedScenarioState
+    protected final ThreadLocal<String>    responseContentPrefix =
         new ThreadLocal<>();
     /**
      * The retrieved {@link Response}'s contents. We hold this as a string
      * because reading the contents of a {@link Response} cannot be done twice.
      */
     @ProvidedScenarioState
-    protected final ThreadLocal<String>    responseContent =
+    protected final ThreadLocal<String>    responseContent       =
         new ThreadLocal<>();
     /**
      * FIXME: this is a patch. We should hold an extended version of Response
@@ -72,7 +111,7 @@ public class RestActions<SELF extends RestActions<SELF>>
      * The retrieved {@link Response} in closed state.
      */
     @ProvidedScenarioState
-    protected final ThreadLocal<Response>  closedResponse  =
+    protected final ThreadLocal<Response>  closedResponse        =
         new ThreadLocal<>();
     /**
      * The given {@link Client}. This client is released upon scenario
@@ -242,6 +281,27 @@ public class RestActions<SELF extends RestActions<SELF>>
         return invoke(request -> request.headers(headers).put(entity));
     }
 
+    /**
+     * Subsequent responses are parsed once, while read, into a JSON tree of
+     * {@link java.util.Map}s, {@link java.util.List}s and scalars, instead of
+     * being read into {@link #responseContent}; only their first
+     * {@value #ATTACHED_PREFIX_BYTES} bytes are retained, for attaching.
+     *
+     * <p>
+     * Suitable for large JSON responses verified by many JSON paths, since
+     * these are evaluated against the same tree, without re-parsing. This does
+     * not reduce memory: the tree is usually larger than the text it replaces.
+     * Empty responses are read into {@link #responseContent} as usual.
+     * </p>
+     *
+     * @return {@link #self()}
+     * @see RestVerifications#the_response_contents(Iterable)
+     */
+    public SELF parsing_JSON_responses() {
+        parsingResponses.set(true);
+        return self();
+    }
+
     /**
      * Fills a value into a query parameter.
      *
@@ -283,7 +343,10 @@ public class RestActions<SELF extends RestActions<SELF>>
                     closedResponse.set(response);
                     log.trace(">>> stored closed response into {}:{}",
                         closedResponse, this);
-                    responseContent.set(response.readEntity(String.class));
+                    if (parsingResponses.get())
+                        readJson(response);
+                    else
+                        readContent(response.readEntity(String.class));
                     log.trace(">>> stored content into {}:{}",
                         responseContent, this);
                 }
@@ -313,7 +376,7 @@ public class RestActions<SELF extends RestActions<SELF>>
             try (val response = invocation.invoke()) {
                 log.trace("invoking {}", invocation);
                 closedResponse.set(response);
-                responseContent.set(attach(response.readEntity(String.class)));
+                readContent(attach(response.readEntity(String.class)));
                 consumer.accept(responseContent.get());
                 return self;
             }
@@ -334,4 +397,103 @@ public class RestActions<SELF extends RestActions<SELF>>
         final Invocation invocation) {
         return invoke(invocation, identity()::apply);
     }
+
+    private void readContent(final String content) {
+        responseParsed.set(false);
+        responseJson.remove();
+        responseContentPrefix.remove();
+        responseContent.set(content);
+    }
+
+    /**
+     * Parses the response entity as JSON, while read, retaining only its
+     * prefix. Empty entities are read as empty contents.
+     *
+     * @param response
+     *            the response
+     */
+    @SneakyThrows(IOException.class)
+    private void readJson(final Response response) {
+        try (val entity = new PrefixRetainingInputStream(
+            response.readEntity(InputStream.class), ATTACHED_PREFIX_BYTES);
+            val parser = ObjectMapperUtils.mapper.createParser(entity)) {
+            if (isNull(parser.nextToken())) {
+                readContent(EMPTY);
+                return;
+            }
+            responseJson.set(ObjectMapperUtils.mapper
+                .readValue(parser, Object.class));
+            responseContentPrefix.set(entity.prefix());
+            responseContent.remove();
+            responseParsed.set(true);
+        }
+    }
+
+    /**
+     * Retains the first bytes read.
+     */
+    private static final class PrefixRetainingInputStream
+        extends FilterInputStream {
+        private final ByteArrayOutputStream prefix;
+        private final int                   maxPrefixBytes;
+        private boolean                     truncated;
+
+        PrefixRetainingInputStream(final InputStream in,
+            final int maxPrefixBytes) {
+            super(in);
+            this.maxPrefixBytes = maxPrefixBytes;
+            this.prefix = new ByteArrayOutputStream(
+                Math.min(maxPrefixBytes, 8192));
+        }
+
+        @Override
+        public int read() throws IOException {
+            val b = super.read();
+            if (b >= 0)
+                retain(new byte[] { (byte) b }, 0, 1);
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len)
+            throws IOException {
+            val n = super.read(b, off, len);
+            if (n > 0)
+                retain(b, off, n);
+            return n;
+        }
+
+        String prefix() {
+            val bytes = prefix.toByteArray();
+            return new String(bytes, 0,
+                truncated ? characterBoundary(bytes) : bytes.length,
+                StandardCharsets.UTF_8)
+                + (truncated ? ELLIPSIS : EMPTY);
+        }
+
+        /**
+         * @return the length of bytes without a trailing UTF-8 sequence cut in
+         *         the middle of a character
+         */
+        private static int characterBoundary(final byte[] bytes) {
+            int lead = bytes.length - 1;
+            // NOTE continuation bytes are 10xxxxxx; sequences are 1-4 bytes
+            while (lead > 0 && bytes.length - lead < 4
+                && (bytes[lead] & 0xC0) == 0x80)
+                lead--;
+            if (lead < 0)
+                return 0;
+            val b = bytes[lead] & 0xFF;
+            val length = b < 0x80 ? 1 : b >= 0xF0 ? 4 : b >= 0xE0 ? 3 : 2;
+            return lead + length > bytes.length ? lead : bytes.length;
+        }
+
+        private void retain(final byte[] b, final int off, final int len) {
+            val retained = Math.min(len, maxPrefixBytes - prefix.size());
+            if (retained > 0)
+                prefix.write(b, off, retained);
+            if (retained < len)
+                truncated = true;
+        }
+    }
 }
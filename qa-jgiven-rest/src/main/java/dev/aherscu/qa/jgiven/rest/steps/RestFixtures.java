@@ -23,6 +23,7 @@ import com.tngtech.jgiven.annotation.*;
 
 import dev.aherscu.qa.jgiven.commons.steps.*;
 import dev.aherscu.qa.jgiven.rest.model.*;
+import dev.aherscu.qa.jgiven.rest.utils.*;
 import jakarta.ws.rs.client.*;
 import lombok.extern.slf4j.*;
 
@@ -59,6 +60,16 @@ public class RestFixtures<SELF extends RestFixtures<SELF>>
         return self();
     }
 
+    /**
+     * Keeps a new {@link Client} for later operations, sharing the keep-alive
+     * connections of {@link SharedConnectionPool#DEFAULT}.
+     *
+     * @return {@link #self()}
+     */
+    public SELF a_pooled_REST_client() {
+        return a_REST_client(SharedConnectionPool.DEFAULT.newClient());
+    }
+
     protected final Client thisClient() {
         return requireNonNull(client.get(), "REST client not initialized");
     }
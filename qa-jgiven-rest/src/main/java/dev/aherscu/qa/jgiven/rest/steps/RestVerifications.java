@@ -23,11 +23,13 @@ import org.hamcrest.*;
 import org.json.*;
 import org.skyscreamer.jsonassert.*;
 
+import com.fasterxml.jackson.core.*;
 import com.tngtech.jgiven.annotation.*;
 
 import dev.aherscu.qa.jgiven.commons.formatters.*;
 import dev.aherscu.qa.jgiven.commons.steps.*;
 import dev.aherscu.qa.jgiven.rest.model.*;
+import dev.aherscu.qa.testing.utils.*;
 import dev.aherscu.qa.testing.utils.assertions.*;
 import jakarta.ws.rs.client.*;
 import jakarta.ws.rs.core.*;
@@ -54,6 +56,30 @@ public class RestVerifications<SELF extends RestVerifications<SELF>>
     @ExpectedScenarioState
     protected ThreadLocal<String>   responseContent;
 
+    /**
+     * Whether the retrieved response contents were parsed as JSON.
+     *
+     * @see RestActions#parsing_JSON_responses()
+     */
+    @ExpectedScenarioState
+    protected ThreadLocal<Boolean>  responseParsed;
+
+    /**
+     * The retrieved response contents parsed as JSON, if parsed.
+     *
+     * @see RestActions#parsing_JSON_responses()
+     */
+    @ExpectedScenarioState
+    protected ThreadLocal<Object>   responseJson;
+
+    /**
+     * The first bytes of retrieved response contents, if parsed.
+     *
+     * @see RestActions#parsing_JSON_responses()
+     */
+    @ExpectedScenarioState
+    protected ThreadLocal<String>   responseContentPrefix;
+
     /**
      * The retrieved response in closed state.
      *
@@ -67,15 +93,25 @@ public class RestVerifications<SELF extends RestVerifications<SELF>>
     /**
      * Verifies response has expected JSON contents.
      *
+     * <p>
+     * If the response was parsed, then the parsed response is serialized back
+     * for comparison.
+     * </p>
+     *
      * @param expectedJson
      *            the expected JSON contents
      * @return {@link #self()}
      */
-    @SneakyThrows(JSONException.class)
+    @SneakyThrows({ JSONException.class, JsonProcessingException.class })
     public SELF the_response_contains_JSON(final String expectedJson) {
         log.trace(">>> retrieving contents from {}:{}",
             responseContent, this);
-        JSONAssert.assertEquals(expectedJson, responseContent.get(), false);
+        JSONAssert.assertEquals(expectedJson,
+            isParsed()
+                ? ObjectMapperUtils.mapper
+                    .writeValueAsString(responseJson.get())
+                : responseContent.get(),
+            false);
         return self();
     }
 
@@ -83,6 +119,11 @@ public class RestVerifications<SELF extends RestVerifications<SELF>>
      * Verifies that the JSON data structure contained by {@link Response}
      * matches several JSON key:matcher pairs.
      *
+     * <p>
+     * If the response was parsed, then the assertions run against the parsed
+     * response.
+     * </p>
+     *
      * @param expectedContents
      *            the expected contents, where each key is a
      *            <a href="https://github.com/jayway/JsonPath">JSON Path</a>
@@ -94,7 +135,10 @@ public class RestVerifications<SELF extends RestVerifications<SELF>>
         @JsonAssertionsFormatter.Annotation final Iterable<? extends JsonAssertion<?>> expectedContents) {
         log.trace(">>> retrieving contents from {}:{}",
             responseContent, this);
-        JsonAssertEx.with(responseContent.get()).assertHas(expectedContents);
+        (isParsed()
+            ? JsonAssertEx.withParsed(responseJson.get())
+            : JsonAssertEx.with(responseContent.get()))
+            .assertHas(expectedContents);
         return self();
     }
 
@@ -104,10 +148,17 @@ public class RestVerifications<SELF extends RestVerifications<SELF>>
      * @param expected
      *            the expected expression
      * @return {@link #self()}
+     * @throws IllegalStateException
+     *             if the response was parsed, hence its raw contents are not
+     *             available
      */
     public SELF the_response_contents(final Matcher<String> expected) {
         log.trace(">>> retrieving contents from {}:{}",
             responseContent, this);
+        if (isParsed())
+            throw new IllegalStateException(
+                "raw response contents not available when parsing JSON"
+                    + " responses; verify via JSON assertions instead");
         MatcherAssert.assertThat(responseContent.get(), expected);
         return self();
     }
@@ -162,6 +213,10 @@ public class RestVerifications<SELF extends RestVerifications<SELF>>
         };
     }
 
+    private boolean isParsed() {
+        return null != responseParsed && responseParsed.get();
+    }
+
     /**
      * Attaches the actual response content, after first verification completed.
      * <p>
@@ -174,6 +229,9 @@ public class RestVerifications<SELF extends RestVerifications<SELF>>
     @AfterStage
     protected void attachActualResponse() {
         log.debug("attaching actual response");
-        attach(null != responseContent ? responseContent.get() : null);
+        attach(null != responseContent && null != responseContent.get()
+            ? responseContent.get()
+            : null != responseContentPrefix ? responseContentPrefix.get()
+                : null);
     }
 }
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.jgiven.rest.utils;
+
+import static com.codahale.metrics.MetricRegistry.*;
+import static dev.aherscu.qa.jgiven.commons.utils.ConnectionDefaults.*;
+import static dev.aherscu.qa.jgiven.commons.utils.MetricReporterSuiteListener.*;
+import static java.lang.Integer.*;
+import static java.lang.Long.*;
+import static java.util.Objects.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+import org.apache.http.*;
+import org.apache.http.conn.routing.*;
+import org.apache.http.impl.conn.*;
+import org.apache.http.pool.*;
+import org.glassfish.jersey.apache.connector.*;
+import org.glassfish.jersey.client.*;
+
+import com.codahale.metrics.*;
+
+import dev.aherscu.qa.testing.utils.rest.*;
+import jakarta.ws.rs.client.*;
+import lombok.*;
+import lombok.extern.slf4j.*;
+
+/**
+ * Pool of keep-alive HTTP connections, shared by all REST clients created from
+ * it, typically one per thread.
+ *
+ * <p>
+ * Connections are limited in total and per route, i.e. per target host; idle
+ * and expired connections are evicted periodically. Pool statistics are
+ * registered as gauges into {@link MetricReporterSuiteListener}'s registry,
+ * named {@code rest.pool.<name>.leased}, {@code .available}, {@code .pending}
+ * and {@code .max}.
+ * </p>
+ *
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * given().a_REST_client(SharedConnectionPool.DEFAULT.newClient());
+ * </pre>
+ * </p>
+ */
+@Slf4j
+public final class SharedConnectionPool implements AutoCloseable {
+    /**
+     * Default pool, configured by {@code rest.pool.max.total} (200),
+     * {@code rest.pool.max.per.route} (20) and
+     * {@code rest.pool.idle.timeout.ms} (30000) system properties.
+     */
+    public static final SharedConnectionPool         DEFAULT =
+        SharedConnectionPool.builder()
+            .name("default")
+            .maxTotal(getInteger("rest.pool.max.total", 200))
+            .maxPerRoute(getInteger("rest.pool.max.per.route", 20))
+            .idleTimeout(Duration.ofMillis(
+                getLong("rest.pool.idle.timeout.ms", 30_000)))
+            .build();
+
+    public final String                              name;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final ScheduledExecutorService           evictor;
+
+    /**
+     * @param name
+     *            the name of this pool, used for its metrics and threads
+     * @param maxTotal
+     *            maximum number of connections
+     * @param maxPerRoute
+     *            default maximum number of connections per route
+     * @param routeLimits
+     *            maximum number of connections for specific routes, by target
+     *            URI, e.g. {@code https://example.com:443}
+     * @param idleTimeout
+     *            time after which idle connections are closed; also the
+     *            eviction interval
+     */
+    @Builder
+    private SharedConnectionPool(
+        final String name,
+        final int maxTotal,
+        final int maxPerRoute,
+        @Singular final Map<String, Integer> routeLimits,
+        final Duration idleTimeout) {
+        this.name = requireNonNull(name, "name");
+        connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        routeLimits.forEach((target, limit) -> {
+            val host = HttpHost.create(target);
+            connectionManager.setMaxPerRoute(
+                new HttpRoute(host, null,
+                    "https".equalsIgnoreCase(host.getSchemeName())),
+                limit);
+        });
+
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            val thread = new Thread(runnable, "rest-pool-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(() -> {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(
+                idleTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        }, idleTimeout.toMillis(), idleTimeout.toMillis(),
+            TimeUnit.MILLISECONDS);
+
+        register("leased", PoolStats::getLeased);
+        register("available", PoolStats::getAvailable);
+        register("pending", PoolStats::getPending);
+        register("max", PoolStats::getMax);
+        log.debug("created connection pool {} of {} connections, {} per route",
+            name, maxTotal, maxPerRoute);
+    }
+
+    /**
+     * Stops evicting and closes all connections. Clients created from this pool
+     * become unusable.
+     */
+    @Override
+    public void close() {
+        evictor.shutdownNow();
+        connectionManager.shutdown();
+    }
+
+    /**
+     * @return configuration of clients sharing this pool, with default
+     *         connection and read timeouts
+     * @see ConnectionDefaults
+     */
+    public ClientConfig clientConfig() {
+        return new ClientConfig()
+            .connectorProvider(new ApacheConnectorProvider())
+            .property(ApacheClientProperties.CONNECTION_MANAGER,
+                connectionManager)
+            // NOTE otherwise closing a client shuts down the pool
+            .property(ApacheClientProperties.CONNECTION_MANAGER_SHARED, true)
+            .property(ClientProperties.CONNECT_TIMEOUT,
+                DEFAULT_CONNECTION_TIMEOUT)
+            .property(ClientProperties.READ_TIMEOUT, DEFAULT_READ_TIMEOUT);
+    }
+
+    /**
+     * @return a new logging client sharing this pool
+     * @see LoggingClientBuilder
+     */
+    public Client newClient() {
+        return LoggingClientBuilder
+            .newClient(ClientBuilder.newClient(clientConfig()));
+    }
+
+    /**
+     * @return current statistics of this pool
+     */
+    public PoolStats stats() {
+        return connectionManager.getTotalStats();
+    }
+
+    private void register(
+        final String statistic,
+        final ToIntFunction<PoolStats> value) {
+        METRIC_REGISTRY.gauge(name("rest.pool", name, statistic),
+            () -> (Gauge<Integer>) () -> value.applyAsInt(stats()));
+    }
+}
@@ -19,6 +19,8 @@ import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static java.util.Arrays.*;
 import static org.hamcrest.Matchers.equalTo;
 
+import java.util.stream.*;
+
 import jakarta.ws.rs.client.*;
 
 import org.testng.annotations.*;
@@ -71,6 +73,88 @@ public final class GenericRestTest extends AbstractWireMockTest<RestScenarioType
             new JsonAssertion<>("$[1].id", equalTo(2))));
     }
 
+    /**
+     * Should retrieve concurrently via clients sharing a connection pool
+     */
+    @Test(invocationCount = 8, threadPoolSize = 4)
+    public void shouldRetrieveViaPooledClients() {
+        wireMockServer.stubFor(get(urlEqualTo("/pooled-id"))
+            .willReturn(aResponse()
+                .withBody("[{id:1}]")));
+
+        given().a_pooled_REST_client();
+
+        when()
+            .connecting_to(wireMockServer.baseUrl())
+            .and().appending_path("pooled-id")
+            .and().getting_the_response();
+
+        then().the_response_contents(asList(
+            new JsonAssertion<>("$[0].id", equalTo(1))));
+    }
+
+    /**
+     * Should read an empty response as empty contents, even if parsing JSON
+     */
+    @Test
+    public void shouldReadEmptyResponseWhenParsingJson() {
+        wireMockServer.stubFor(get(urlEqualTo("/nothing"))
+            .willReturn(aResponse().withStatus(204)));
+
+        given().a_REST_client(client);
+
+        when()
+            .connecting_to(wireMockServer.baseUrl())
+            .and().appending_path("nothing")
+            .and().parsing_JSON_responses()
+            .and().getting_the_response();
+
+        then().the_response_contents(equalTo(""));
+    }
+
+    /**
+     * Should consider a JSON null response as parsed
+     */
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void shouldConsiderJsonNullResponseAsParsed() {
+        wireMockServer.stubFor(get(urlEqualTo("/null"))
+            .willReturn(aResponse().withBody("null")));
+
+        given().a_REST_client(client);
+
+        when()
+            .connecting_to(wireMockServer.baseUrl())
+            .and().appending_path("null")
+            .and().parsing_JSON_responses()
+            .and().getting_the_response();
+
+        then().the_response_contents(equalTo("null"));
+    }
+
+    /**
+     * Should verify a large JSON response parsed while read
+     */
+    @Test
+    public void shouldVerifyParsedJsonResponse() {
+        wireMockServer.stubFor(get(urlEqualTo("/many-ids"))
+            .willReturn(aResponse()
+                .withBody(IntStream.range(0, 100_000)
+                    .mapToObj(i -> "{\"id\":" + i + "}")
+                    .collect(Collectors.joining(",", "[", "]")))));
+
+        given().a_REST_client(client);
+
+        when()
+            .connecting_to(wireMockServer.baseUrl())
+            .and().appending_path("many-ids")
+            .and().parsing_JSON_responses()
+            .and().getting_the_response();
+
+        then().the_response_contents(asList(
+            new JsonAssertion<>("$[0].id", equalTo(0)),
+            new JsonAssertion<>("$[99999].id", equalTo(99_999))));
+    }
+
     @AfterClass
     private void afterClassCloseRestClient() {
         client.close();
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.jgiven.ssh.model;
+
+import static java.util.Objects.*;
+
+import java.net.*;
+import java.time.*;
+
+import lombok.*;
+
+/**
+ * Outcome of a command executed on one host.
+ */
+@Value
+@Builder
+public class SshResult {
+    /**
+     * The host on which the command was executed.
+     */
+    URI      url;
+    /**
+     * Exit status of the command; {@code null} if it did not complete, e.g.
+     * upon connection failure or timeout.
+     */
+    Integer  exitStatus;
+    /**
+     * What the command wrote to its standard output.
+     */
+    String   output;
+    /**
+     * What the command wrote to its standard error.
+     */
+    String   error;
+    /**
+     * Time from leasing the connection until the command completed or failed.
+     */
+    Duration latency;
+    /**
+     * Description of the failure to execute the command, if any.
+     */
+    String   failure;
+
+    /**
+     * @return true if the command completed with zero exit status
+     */
+    public boolean succeeded() {
+        return nonNull(exitStatus) && 0 == exitStatus;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s exit %s in %d ms%s", url.getHost(),
+            exitStatus, latency.toMillis(),
+            isNull(failure) ? "" : " " + failure);
+    }
+}
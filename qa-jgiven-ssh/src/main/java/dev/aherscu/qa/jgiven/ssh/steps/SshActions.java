@@ -21,16 +21,22 @@ import static org.apache.commons.io.IOUtils.*;
 
 import java.io.*;
 import java.net.*;
+import java.time.*;
+import java.util.*;
 import java.util.concurrent.*;
+import java.util.stream.*;
 
 import javax.annotation.concurrent.*;
 
 import org.apache.commons.io.*;
+import org.apache.commons.io.input.*;
 
 import com.tngtech.jgiven.annotation.*;
+import com.tngtech.jgiven.attachment.*;
 
 import dev.aherscu.qa.jgiven.commons.steps.*;
 import dev.aherscu.qa.jgiven.ssh.model.*;
+import dev.aherscu.qa.jgiven.ssh.utils.*;
 import lombok.*;
 import lombok.extern.slf4j.*;
 import net.schmizz.sshj.*;
@@ -38,7 +44,9 @@ import net.schmizz.sshj.transport.verification.*;
 
 /**
  * Generic SSH configuration actions. Act on previously set configuration. Each
- * action closes the connection.
+ * action closes the connection, unless a connection pool was set by
+ * {@link SshFixtures#connections_pooled_by(SshConnectionPool)}, in which case
+ * actions lease sessions on pooled connections.
  *
  * @param <SELF>
  *            the type of the subclass
@@ -55,41 +63,70 @@ public class SshActions<SELF extends SshActions<SELF>>
      * {@code target.downloads} system property and defaults to
      * {@code target/downloads}.
      */
-    public static final String           TARGET_DOWNLOADS =
-        System.getProperty("target.downloads", "target/downloads"); //$NON-NLS-1$ //$NON-NLS-2$
+    public static final String                         TARGET_DOWNLOADS =
+        System.getProperty("target.downloads", "target/downloads");      //$NON-NLS-1$ //$NON-NLS-2$
 
     /**
      * The exit status of last SSH batch command.
      */
     @ProvidedScenarioState
-    protected final ThreadLocal<Integer> exitStatus       =
+    protected final ThreadLocal<Integer>               exitStatus       =
+        new ThreadLocal<>();
+
+    /**
+     * The results of last SSH batch command executed on many hosts, by host.
+     */
+    @ProvidedScenarioState
+    protected final ThreadLocal<Map<URI, SshResult>>   fanOutResults    =
+        new ThreadLocal<>();
+
+    /**
+     * The remote file to be streamed by verifications; each call opens it anew.
+     */
+    @ProvidedScenarioState
+    protected final ThreadLocal<Callable<InputStream>> remoteFile       =
         new ThreadLocal<>();
 
     /**
      * The given SSH client configuration.
      */
     @ExpectedScenarioState
-    protected ThreadLocal<Config>        configuration;
+    protected ThreadLocal<Config>                      configuration;
+    /**
+     * The given SSH connection pool, if any.
+     */
+    @ExpectedScenarioState
+    protected ThreadLocal<SshConnectionPool>           connectionPool;
     /**
      * The given SSH client connection timeout.
      */
     @ExpectedScenarioState
-    protected ThreadLocal<Integer>       connectionTimeout;
+    protected ThreadLocal<Integer>                     connectionTimeout;
     /**
      * The given SSH remote stream redirection target.
      */
     @ExpectedScenarioState
-    protected ThreadLocal<OutputStream>  executionOutput;
+    protected ThreadLocal<OutputStream>                executionOutput;
     /**
      * The given SSH remote execution timeout.
      */
     @ExpectedScenarioState
-    protected ThreadLocal<Integer>       executionTimeout;
+    protected ThreadLocal<Integer>                     executionTimeout;
+    /**
+     * The given number of hosts to execute on concurrently.
+     */
+    @ExpectedScenarioState
+    protected ThreadLocal<Integer>                     fanOutParallelism;
     /**
      * The given SSH client read timeout.
      */
     @ExpectedScenarioState
-    protected ThreadLocal<Integer>       readTimeout;
+    protected ThreadLocal<Integer>                     readTimeout;
+    /**
+     * The given number of chunks to transfer concurrently over SFTP.
+     */
+    @ExpectedScenarioState
+    protected ThreadLocal<Integer>                     sftpParallelism;
 
     private static SSHClient connect(
         final SSHClient client,
@@ -134,15 +171,113 @@ public class SshActions<SELF extends SshActions<SELF>>
     public SELF downloading(final URI url, final File file) {
         val fixedFilePath = FilenameUtils.separatorsToUnix(file.toString());
         log.debug("downloading {} from {}", fixedFilePath, url); //$NON-NLS-1$
-        try (val client = connect(createClient(), url)) {
-            FileUtils.forceMkdir(new File(TARGET_DOWNLOADS));
-            client
-                .newSCPFileTransfer()
-                .download(fixedFilePath, TARGET_DOWNLOADS);
+        FileUtils.forceMkdir(new File(TARGET_DOWNLOADS));
+        using(url, client -> client
+            .newSCPFileTransfer()
+            .download(fixedFilePath, TARGET_DOWNLOADS));
+        return self();
+    }
+
+    /**
+     * Downloads a file from target SSH machine to local machine over SFTP, with
+     * pipelined reads; files larger than
+     * {@link SftpTransfer#DEFAULT_CHUNK_SIZE} are downloaded in chunks, up to
+     * the number set by {@link SshFixtures#sftp_parallelism(int)} at a time.
+     *
+     * <p>
+     * When connections are pooled, leases as many session slots as the
+     * parallelism, limited to {@link SshConnectionPool#maxSessions}; otherwise
+     * the parallelism should not exceed the server's limit of sessions per
+     * connection, e.g. OpenSSH {@code MaxSessions}.
+     * </p>
+     *
+     * @param url
+     *            the machine from which to download
+     * @param file
+     *            the file path to download
+     * @return {@link #self()}
+     * @see SshActions#TARGET_DOWNLOADS
+     */
+    @SneakyThrows(IOException.class)
+    public SELF downloading_via_SFTP(final URI url, final File file) {
+        val fixedFilePath = FilenameUtils.separatorsToUnix(file.toString());
+        log.debug("downloading {} from {} via SFTP", fixedFilePath, url); //$NON-NLS-1$
+        FileUtils.forceMkdir(new File(TARGET_DOWNLOADS));
+        using(url, sftpParallelism.get(),
+            (client, sessions) -> transferOver(client, sessions)
+                .download(fixedFilePath,
+                    new File(TARGET_DOWNLOADS, file.getName()).toPath()));
+        return self();
+    }
+
+    /**
+     * Executes a batch command on many SSH machines concurrently, up to the
+     * number set by {@link SshFixtures#fan_out_parallelism(int)}, each using
+     * the timeout set by {@link SshFixtures#execution_timeout(int)}. Attaches
+     * the exit status and latency per machine.
+     *
+     * <p>
+     * Connections are leased from the pool set by
+     * {@link SshFixtures#connections_pooled_by(SshConnectionPool)}, if any;
+     * otherwise from a temporary pool closed afterwards.
+     * </p>
+     *
+     * @param urls
+     *            the machines on which to execute
+     * @param command
+     *            the batch command to execute on SSH target machines
+     * @return {@link #self()}
+     */
+    public SELF executing_on_all(
+        @Hidden final Collection<URI> urls,
+        final String command) {
+        val pool = connectionPool.get();
+        val fanOutPool = null == pool
+            ? SshConnectionPool.builder()
+                .config(configuration.get())
+                .connectionTimeout(connectionTimeout.get())
+                .readTimeout(readTimeout.get())
+                .build()
+            : pool;
+        try {
+            val results = SshFanOut.builder()
+                .pool(fanOutPool)
+                .parallelism(fanOutParallelism.get())
+                .timeout(Duration.ofMillis(executionTimeout.get()))
+                .build()
+                .execute(urls, command);
+            fanOutResults.set(results);
+            currentStep.addAttachment(Attachment
+                .fromText(results.values().stream()
+                    .map(SshResult::toString)
+                    .collect(Collectors.joining(System.lineSeparator())),
+                    MediaType.PLAIN_TEXT_UTF_8)
+                .withTitle("per-host results"));
+        } finally {
+            if (null == pool)
+                fanOutPool.close();
         }
         return self();
     }
 
+    /**
+     * Streams a file from target SSH machine over SFTP directly to subsequent
+     * verifications, without storing it locally.
+     *
+     * @param url
+     *            the machine from which to stream
+     * @param file
+     *            the file path to stream
+     * @return {@link #self()}
+     * @see SshVerifications#the_remote_file(org.hamcrest.Matcher)
+     */
+    public SELF streaming_remote_file(final URI url, final File file) {
+        val fixedFilePath = FilenameUtils.separatorsToUnix(file.toString());
+        log.debug("streaming {} from {} via SFTP", fixedFilePath, url); //$NON-NLS-1$
+        remoteFile.set(() -> opening(url, fixedFilePath));
+        return self();
+    }
+
     /**
      * Executes a batch command on target SSH machine, using the timeout set by
      * {@link SshFixtures#execution_timeout(int)} and the target output stream
@@ -187,15 +322,16 @@ public class SshActions<SELF extends SshActions<SELF>>
         final OutputStream outputStream) {
         log.debug("executing {} on {} with timeout {} {} and output stream {}", //$NON-NLS-1$
             command, url, timeout, timeUnit.toString(), outputStream);
-        try (val client = connect(createClient(), url);
-            val session = client.startSession();
-            val execution = session.exec(toUnix(command));
-            val inputStream = execution.getInputStream()) {
-            copy(inputStream, outputStream);
-            execution.join(timeout, timeUnit);
-            exitStatus.set(execution.getExitStatus());
-            log.debug("remote SSH process ended"); //$NON-NLS-1$
-        }
+        using(url, client -> {
+            try (val session = client.startSession();
+                val execution = session.exec(toUnix(command));
+                val inputStream = execution.getInputStream()) {
+                copy(inputStream, outputStream);
+                execution.join(timeout, timeUnit);
+                exitStatus.set(execution.getExitStatus());
+                log.debug("remote SSH process ended"); //$NON-NLS-1$
+            }
+        });
 
         return self();
     }
@@ -210,4 +346,90 @@ public class SshActions<SELF extends SshActions<SELF>>
         client.setTimeout(readTimeout.get());
         return client;
     }
+
+    private InputStream opening(final URI url, final String path)
+        throws IOException {
+        val pool = connectionPool.get();
+        if (null == pool) {
+            val client = connect(createClient(), url);
+            try {
+                return new ClosingInputStream(
+                    transferOver(client, 1).open(path), client);
+            } catch (final IOException e) {
+                client.close();
+                throw e;
+            }
+        }
+
+        val lease = pool.lease(url);
+        try {
+            return new ClosingInputStream(
+                transferOver(lease.client, 1).open(path), lease::close);
+        } catch (final IOException e) {
+            lease.close();
+            throw e;
+        }
+    }
+
+    private static SftpTransfer transferOver(
+        final SSHClient client,
+        final int parallelism) {
+        return SftpTransfer.builder()
+            .client(client)
+            .parallelism(parallelism)
+            .build();
+    }
+
+    private void using(final URI url, final SshClientAction action)
+        throws IOException {
+        using(url, 1, (client, sessions) -> action.accept(client));
+    }
+
+    private void using(
+        final URI url,
+        final int sessions,
+        final SshSessionsAction action) throws IOException {
+        val pool = connectionPool.get();
+        if (null == pool)
+            try (val client = connect(createClient(), url)) {
+                action.accept(client, sessions);
+            }
+        else
+            try (val lease = pool.lease(url, sessions)) {
+                action.accept(lease.client, lease.sessions);
+            }
+    }
+
+    @FunctionalInterface
+    private interface SshClientAction {
+        void accept(SSHClient client) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface SshSessionsAction {
+        void accept(SSHClient client, int sessions) throws IOException;
+    }
+
+    /**
+     * Closes its connection, or returns it to its pool, upon close.
+     */
+    private static final class ClosingInputStream extends ProxyInputStream {
+        private final Closeable connection;
+
+        ClosingInputStream(
+            final InputStream input,
+            final Closeable connection) {
+            super(input);
+            this.connection = connection;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                connection.close();
+            }
+        }
+    }
 }
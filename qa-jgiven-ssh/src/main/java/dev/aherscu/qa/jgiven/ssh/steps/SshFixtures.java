@@ -27,6 +27,7 @@ import dev.aherscu.qa.jgiven.commons.formatters.*;
 import dev.aherscu.qa.jgiven.commons.steps.*;
 import dev.aherscu.qa.jgiven.commons.utils.*;
 import dev.aherscu.qa.jgiven.ssh.model.*;
+import dev.aherscu.qa.jgiven.ssh.utils.*;
 import net.schmizz.sshj.*;
 
 /**
@@ -46,39 +47,62 @@ public class SshFixtures<SELF extends SshFixtures<SELF>>
      * The given SSH client configuration.
      */
     @ProvidedScenarioState
-    protected final ThreadLocal<Config>       configuration;
+    protected final ThreadLocal<Config>            configuration;
+
+    /**
+     * The given SSH connection pool, if any.
+     */
+    @ProvidedScenarioState
+    protected final ThreadLocal<SshConnectionPool> connectionPool;
 
     /**
      * The given SSH client connection timeout.
      */
     @ProvidedScenarioState
-    protected final ThreadLocal<Integer>      connectionTimeout;
+    protected final ThreadLocal<Integer>           connectionTimeout;
 
     /**
      * The given SSH remote stream redirection target.
      */
     @ProvidedScenarioState
-    protected final ThreadLocal<OutputStream> executionOutput;
+    protected final ThreadLocal<OutputStream>      executionOutput;
 
     /**
      * The given SSH remote execution timeout.
      */
     @ProvidedScenarioState
-    protected final ThreadLocal<Integer>      executionTimeout;
+    protected final ThreadLocal<Integer>           executionTimeout;
+
+    /**
+     * The given number of hosts to execute on concurrently.
+     */
+    @ProvidedScenarioState
+    protected final ThreadLocal<Integer>           fanOutParallelism;
 
     /**
      * The given SSH client read timeout.
      */
     @ProvidedScenarioState
-    protected final ThreadLocal<Integer>      readTimeout;
+    protected final ThreadLocal<Integer>           readTimeout;
+
+    /**
+     * The given number of chunks to transfer concurrently over SFTP.
+     */
+    @ProvidedScenarioState
+    protected final ThreadLocal<Integer>           sftpParallelism;
 
     {
         configuration = ThreadLocal.withInitial(DefaultConfig::new);
+        connectionPool = new ThreadLocal<>();
         connectionTimeout =
             ThreadLocal.withInitial(() -> DEFAULT_CONNECTION_TIMEOUT);
         readTimeout = ThreadLocal.withInitial(() -> DEFAULT_READ_TIMEOUT);
+        sftpParallelism =
+            ThreadLocal.withInitial(() -> SftpTransfer.DEFAULT_PARALLELISM);
         executionTimeout =
             ThreadLocal.withInitial(() -> DEFAULT_EXECUTION_TIMEOUT);
+        fanOutParallelism =
+            ThreadLocal.withInitial(() -> SshFanOut.DEFAULT_PARALLELISM);
         // noinspection UseOfSystemOutOrSystemErr
         executionOutput = ThreadLocal.withInitial(() -> System.err);
     }
@@ -97,6 +121,21 @@ public class SshFixtures<SELF extends SshFixtures<SELF>>
         return self();
     }
 
+    /**
+     * Sets up a connection pool to be used by subsequent actions, instead of
+     * connecting and authenticating on each action. The pool has its own
+     * configuration and connection and read timeouts.
+     *
+     * @param pool
+     *            the pool to use; usually shared among all scenarios
+     *
+     * @return {@link #self()}
+     */
+    public SELF connections_pooled_by(@Hidden final SshConnectionPool pool) {
+        connectionPool.set(pool);
+        return self();
+    }
+
     /**
      * Sets the connection timeout on the given SSH client; otherwise
      * {@link ConnectionDefaults#DEFAULT_CONNECTION_TIMEOUT}.
@@ -141,6 +180,20 @@ public class SshFixtures<SELF extends SshFixtures<SELF>>
         return self();
     }
 
+    /**
+     * Sets the number of hosts to execute on concurrently when executing on
+     * many hosts; otherwise {@link SshFanOut#DEFAULT_PARALLELISM}.
+     *
+     * @param hosts
+     *            the number of hosts
+     *
+     * @return {@link #self()}
+     */
+    public SELF fan_out_parallelism(final int hosts) {
+        fanOutParallelism.set(hosts);
+        return self();
+    }
+
     /**
      * Sets the read timeout on the given SSH client; otherwise
      * {@link ConnectionDefaults#DEFAULT_READ_TIMEOUT}.
@@ -154,4 +207,18 @@ public class SshFixtures<SELF extends SshFixtures<SELF>>
         readTimeout.set(millis);
         return self();
     }
+
+    /**
+     * Sets the number of chunks to transfer concurrently when downloading large
+     * files over SFTP; otherwise {@link SftpTransfer#DEFAULT_PARALLELISM}.
+     *
+     * @param chunks
+     *            the number of chunks
+     *
+     * @return {@link #self()}
+     */
+    public SELF sftp_parallelism(final int chunks) {
+        sftpParallelism.set(chunks);
+        return self();
+    }
 }
@@ -15,14 +15,24 @@
  */
 package dev.aherscu.qa.jgiven.ssh.steps;
 
+import static java.nio.charset.StandardCharsets.*;
 import static org.assertj.core.api.Assertions.*;
 
+import java.io.*;
+import java.net.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
+
 import javax.annotation.concurrent.*;
 
+import org.hamcrest.*;
+
 import com.tngtech.jgiven.annotation.*;
 
 import dev.aherscu.qa.jgiven.commons.steps.*;
 import dev.aherscu.qa.jgiven.ssh.model.*;
+import lombok.*;
 
 /**
  * Generic SSH configuration verifications. Verifications on the response
@@ -41,7 +51,22 @@ public class SshVerifications<SELF extends SshVerifications<SELF>>
      * The exit status of last SSH batch command.
      */
     @ExpectedScenarioState
-    protected final ThreadLocal<Integer> exitStatus = new ThreadLocal<>();
+    protected final ThreadLocal<Integer>               exitStatus    =
+        new ThreadLocal<>();
+
+    /**
+     * The results of last SSH batch command executed on many hosts, by host.
+     */
+    @ExpectedScenarioState
+    protected final ThreadLocal<Map<URI, SshResult>>   fanOutResults =
+        new ThreadLocal<>();
+
+    /**
+     * The remote file to be streamed; each call opens it anew.
+     */
+    @ExpectedScenarioState
+    protected final ThreadLocal<Callable<InputStream>> remoteFile    =
+        new ThreadLocal<>();
 
     /**
      * Verifies that the exit status of last executed SSH batch command is as
@@ -55,4 +80,52 @@ public class SshVerifications<SELF extends SshVerifications<SELF>>
         assertThat(exitStatus.get()).isEqualTo(Integer.valueOf(expected));
         return self();
     }
+
+    /**
+     * Verifies that the last SSH batch command executed on many hosts exited
+     * with expected status on all of them.
+     *
+     * @param expected
+     *            the expected exit status
+     * @return {@link #self()}
+     */
+    public SELF the_exit_status_on_all_hosts_is(final int expected) {
+        assertThat(fanOutResults.get().values())
+            .allSatisfy(result -> assertThat(result.getExitStatus())
+                .as(result.toString())
+                .isEqualTo(Integer.valueOf(expected)));
+        return self();
+    }
+
+    /**
+     * Verifies the results of the last SSH batch command executed on many
+     * hosts, e.g. their outputs or latencies.
+     *
+     * @param matcher
+     *            the matcher to apply on the results
+     * @return {@link #self()}
+     */
+    public SELF the_results_on_all_hosts(
+        final Matcher<? super Collection<SshResult>> matcher) {
+        MatcherAssert.assertThat(fanOutResults.get().values(), matcher);
+        return self();
+    }
+
+    /**
+     * Verifies the lines of a remote file, as streamed over SFTP without
+     * storing it locally.
+     *
+     * @param matcher
+     *            the matcher to apply on the lines
+     * @return {@link #self()}
+     * @see SshActions#streaming_remote_file(URI, File)
+     */
+    @SneakyThrows(Exception.class)
+    public SELF the_remote_file(final Matcher<Stream<String>> matcher) {
+        try (val reader = new BufferedReader(
+            new InputStreamReader(remoteFile.get().call(), UTF_8))) {
+            MatcherAssert.assertThat(reader.lines(), matcher);
+        }
+        return self();
+    }
 }
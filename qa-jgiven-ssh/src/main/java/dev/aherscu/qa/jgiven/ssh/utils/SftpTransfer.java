@@ -0,0 +1,262 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.jgiven.ssh.utils;
+
+import static java.lang.Math.*;
+import static java.nio.file.StandardOpenOption.*;
+import static java.util.Objects.*;
+import static java.util.stream.Collectors.*;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
+
+import lombok.*;
+import lombok.extern.slf4j.*;
+import net.schmizz.sshj.*;
+import net.schmizz.sshj.sftp.*;
+
+/**
+ * Reads remote files over SFTP, either streaming them or downloading them.
+ *
+ * <p>
+ * Reads are pipelined, i.e. up to {@link #maxUnconfirmedReads} read requests
+ * are sent ahead without waiting for their responses. Files larger than
+ * {@link #chunkSize} may be downloaded in ranged chunks, each over its own SFTP
+ * channel of same connection, up to {@link #parallelism} at a time; each chunk
+ * reads ahead no further than its own end.
+ * </p>
+ *
+ * <p>
+ * SSH servers limit the number of concurrent channels per connection, e.g.
+ * OpenSSH {@code MaxSessions} defaults to 10; the parallelism, plus any other
+ * sessions open on same connection, should not exceed this limit, otherwise
+ * opening channels fails. When the connection is leased from an
+ * {@link SshConnectionPool}, lease as many session slots as the parallelism,
+ * see {@link SshConnectionPool#lease(java.net.URI, int)}.
+ * </p>
+ *
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * try (val input = SftpTransfer.builder()
+ *     .client(client)
+ *     .build()
+ *     .open("/var/log/some.log")) {
+ *     // read the stream
+ * }
+ * </pre>
+ * </p>
+ */
+@Slf4j
+public final class SftpTransfer {
+    /**
+     * Default number of read requests sent ahead.
+     */
+    public static final int  DEFAULT_MAX_UNCONFIRMED_READS = 16;
+    /**
+     * Default size above which files are downloaded in chunks.
+     */
+    public static final long DEFAULT_CHUNK_SIZE            =
+        64L * 1024 * 1024;
+    /**
+     * Default number of chunks downloaded concurrently; no chunking.
+     */
+    public static final int  DEFAULT_PARALLELISM           = 1;
+    private static final int BUFFER_SIZE                   = 32 * 1024;
+
+    public final int         maxUnconfirmedReads;
+    public final long        chunkSize;
+    public final int         parallelism;
+    private final SSHClient  client;
+
+    /**
+     * @param client
+     *            a connected and authenticated client; not closed by this
+     *            transfer
+     * @param maxUnconfirmedReads
+     *            number of read requests sent ahead; defaults to
+     *            {@link #DEFAULT_MAX_UNCONFIRMED_READS}
+     * @param chunkSize
+     *            size above which files are downloaded in chunks, and size of
+     *            each chunk; defaults to {@link #DEFAULT_CHUNK_SIZE}
+     * @param parallelism
+     *            number of chunks downloaded concurrently, each over its own
+     *            SFTP channel; defaults to {@link #DEFAULT_PARALLELISM}, i.e.
+     *            no chunking
+     */
+    @Builder
+    private SftpTransfer(
+        final SSHClient client,
+        final Integer maxUnconfirmedReads,
+        final Long chunkSize,
+        final Integer parallelism) {
+        this.client = requireNonNull(client, "must provide an SSH client");
+        this.maxUnconfirmedReads = requireNonNullElse(maxUnconfirmedReads,
+            DEFAULT_MAX_UNCONFIRMED_READS);
+        this.chunkSize = requireNonNullElse(chunkSize, DEFAULT_CHUNK_SIZE);
+        this.parallelism =
+            requireNonNullElse(parallelism, DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Downloads a remote file.
+     *
+     * @param path
+     *            the remote file path
+     * @param target
+     *            the local file; overwritten if exists
+     * @return number of bytes downloaded
+     * @throws IOException
+     *             upon transfer failures
+     */
+    public long download(final String path, final Path target)
+        throws IOException {
+        final long size;
+        try (val sftp = client.newSFTPClient()) {
+            size = sftp.size(path);
+        }
+        log.debug("downloading {} of {} bytes into {}", path, size, target);
+
+        if (parallelism > 1 && size > chunkSize)
+            downloadChunks(path, target, size);
+        else
+            try (val input = open(path);
+                val output = Files.newOutputStream(target)) {
+                input.transferTo(output);
+            }
+        return size;
+    }
+
+    /**
+     * Opens a remote file for streaming, without storing it locally.
+     *
+     * @param path
+     *            the remote file path
+     * @return the stream; must be closed after use
+     * @throws IOException
+     *             upon failures opening the file
+     */
+    public InputStream open(final String path) throws IOException {
+        return open(path, 0, 0);
+    }
+
+    private void downloadChunk(
+        final String path,
+        final FileChannel channel,
+        final long offset,
+        final long length) throws IOException {
+        log.trace("downloading {} bytes from {} of {}", length, offset, path);
+        try (val input = open(path, offset, length)) {
+            val buffer = new byte[BUFFER_SIZE];
+            long position = offset;
+            long remaining = length;
+            while (remaining > 0) {
+                val read = input.read(buffer, 0,
+                    (int) min(buffer.length, remaining));
+                if (read < 0)
+                    throw new EOFException(path + " ended at " + position);
+                val written = ByteBuffer.wrap(buffer, 0, read);
+                while (written.hasRemaining())
+                    position += channel.write(written, position);
+                remaining -= read;
+            }
+        }
+    }
+
+    @SneakyThrows(InterruptedException.class)
+    private void downloadChunks(
+        final String path,
+        final Path target,
+        final long size) throws IOException {
+        val chunks = (size + chunkSize - 1) / chunkSize;
+        val executor = Executors
+            .newFixedThreadPool((int) min(parallelism, chunks));
+        try (val channel = FileChannel.open(target,
+            CREATE, WRITE, TRUNCATE_EXISTING)) {
+            val futures = LongStream.range(0, chunks)
+                .mapToObj(chunk -> executor.submit(() -> {
+                    val offset = chunk * chunkSize;
+                    downloadChunk(path, channel, offset,
+                        min(chunkSize, size - offset));
+                    return null;
+                }))
+                .collect(toList());
+            for (val future : futures)
+                try {
+                    future.get();
+                } catch (final ExecutionException e) {
+                    throw e.getCause() instanceof IOException
+                        ? (IOException) e.getCause()
+                        : new IOException(e.getCause());
+                }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private InputStream open(
+        final String path,
+        final long offset,
+        final long length) throws IOException {
+        val sftp = client.newSFTPClient();
+        try {
+            return new RemoteFileInputStream(sftp, sftp.open(path),
+                offset, length);
+        } catch (final IOException e) {
+            sftp.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads ahead up to specified length, if positive, otherwise up to end of
+     * file; closes its remote file and SFTP channel upon close.
+     */
+    private final class RemoteFileInputStream extends FilterInputStream {
+        private final SFTPClient sftp;
+        private final RemoteFile file;
+
+        RemoteFileInputStream(
+            final SFTPClient sftp,
+            final RemoteFile file,
+            final long offset,
+            final long length) {
+            super(file.new ReadAheadRemoteFileInputStream(
+                maxUnconfirmedReads, offset, length));
+            this.sftp = sftp;
+            this.file = file;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                try {
+                    file.close();
+                } finally {
+                    sftp.close();
+                }
+            }
+        }
+    }
+}
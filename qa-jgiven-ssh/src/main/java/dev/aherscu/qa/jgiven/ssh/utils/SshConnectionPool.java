@@ -0,0 +1,300 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.jgiven.ssh.utils;
+
+import static dev.aherscu.qa.jgiven.commons.utils.ConnectionDefaults.*;
+import static java.lang.Math.*;
+import static java.util.Objects.*;
+
+import java.io.*;
+import java.net.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import dev.aherscu.qa.jgiven.commons.utils.*;
+import dev.aherscu.qa.jgiven.ssh.model.*;
+import lombok.*;
+import lombok.extern.slf4j.*;
+import net.schmizz.sshj.*;
+import net.schmizz.sshj.transport.verification.*;
+
+/**
+ * Thread-safe pool of authenticated SSH connections, keyed by host, port and
+ * {@code ssh-info}, i.e. user and credentials.
+ *
+ * <p>
+ * SSH multiplexes many sessions over one connection, hence connections are not
+ * borrowed exclusively; instead each lease takes one of a limited number of
+ * session slots on a connection, and a new connection is opened only when all
+ * slots on existing connections are taken. Connections are checked on each
+ * lease and discarded if disconnected; connections without leases are
+ * disconnected after being idle for {@link #idleTimeout}.
+ * </p>
+ *
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * try (val lease = pool.lease(url);
+ *     val session = lease.client.startSession()) {
+ *     // use the session
+ * }
+ * </pre>
+ * </p>
+ */
+@Slf4j
+public final class SshConnectionPool implements AutoCloseable {
+    /**
+     * Default number of concurrent sessions per connection; OpenSSH allows 10
+     * by default.
+     */
+    public static final int                                  DEFAULT_MAX_SESSIONS =
+        8;
+    /**
+     * Default time after which unused connections are disconnected.
+     */
+    public static final Duration                             DEFAULT_IDLE_TIMEOUT =
+        Duration.ofMinutes(1);
+
+    public final int                                         maxSessions;
+    public final Duration                                    idleTimeout;
+    private final Config                                     config;
+    private final int                                        connectionTimeout;
+    private final int                                        readTimeout;
+    private final HostKeyVerifier                            hostKeyVerifier;
+    private final ConcurrentMap<Key, Collection<Connection>> connections          =
+        new ConcurrentHashMap<>();
+    private final ScheduledExecutorService                   evictor;
+
+    /**
+     * @param config
+     *            the SSH client configuration; defaults to
+     *            {@link DefaultConfig}
+     * @param connectionTimeout
+     *            in milliseconds; defaults to
+     *            {@link ConnectionDefaults#DEFAULT_CONNECTION_TIMEOUT}
+     * @param readTimeout
+     *            in milliseconds; defaults to
+     *            {@link ConnectionDefaults#DEFAULT_READ_TIMEOUT}
+     * @param hostKeyVerifier
+     *            defaults to {@link PromiscuousVerifier}
+     * @param maxSessions
+     *            maximum number of concurrent sessions per connection; defaults
+     *            to {@link #DEFAULT_MAX_SESSIONS}
+     * @param idleTimeout
+     *            time after which unused connections are disconnected; defaults
+     *            to {@link #DEFAULT_IDLE_TIMEOUT}
+     */
+    @Builder
+    private SshConnectionPool(
+        final Config config,
+        final Integer connectionTimeout,
+        final Integer readTimeout,
+        final HostKeyVerifier hostKeyVerifier,
+        final Integer maxSessions,
+        final Duration idleTimeout) {
+        this.config = requireNonNullElseGet(config, DefaultConfig::new);
+        this.connectionTimeout = requireNonNullElse(connectionTimeout,
+            DEFAULT_CONNECTION_TIMEOUT);
+        this.readTimeout =
+            requireNonNullElse(readTimeout, DEFAULT_READ_TIMEOUT);
+        // FIXME: host keys should be verified
+        this.hostKeyVerifier = requireNonNullElseGet(hostKeyVerifier,
+            PromiscuousVerifier::new);
+        this.maxSessions =
+            requireNonNullElse(maxSessions, DEFAULT_MAX_SESSIONS);
+        this.idleTimeout =
+            requireNonNullElse(idleTimeout, DEFAULT_IDLE_TIMEOUT);
+
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            val thread = new Thread(runnable, "ssh-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(this::evict,
+            this.idleTimeout.toMillis(), this.idleTimeout.toMillis(),
+            TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops evicting and disconnects all connections, including leased ones.
+     */
+    @Override
+    public void close() {
+        evictor.shutdownNow();
+        connections.values().forEach(keyed -> keyed.removeIf(connection -> {
+            connection.disconnect();
+            return true;
+        }));
+    }
+
+    /**
+     * @return number of currently open connections
+     */
+    public int connections() {
+        return connections.values().stream()
+            .mapToInt(Collection::size)
+            .sum();
+    }
+
+    /**
+     * Leases a session slot on a healthy connection to specified machine,
+     * connecting and authenticating only if there is no such connection with a
+     * free slot.
+     *
+     * @param url
+     *            the machine to connect to, its user-info part being an
+     *            {@code ssh-info} as specified by {@link SshInfo}
+     * @return the lease; must be closed after use
+     * @throws IOException
+     *             upon connection or authentication failures
+     */
+    public Lease lease(final URI url) throws IOException {
+        return lease(url, 1);
+    }
+
+    /**
+     * Leases several session slots on a same healthy connection to specified
+     * machine, e.g. for transferring over concurrent channels, connecting and
+     * authenticating only if there is no such connection with enough free
+     * slots.
+     *
+     * @param url
+     *            the machine to connect to, its user-info part being an
+     *            {@code ssh-info} as specified by {@link SshInfo}
+     * @param sessions
+     *            number of session slots; limited to {@link #maxSessions}
+     * @return the lease, holding {@link Lease#sessions} slots; must be closed
+     *         after use
+     * @throws IOException
+     *             upon connection or authentication failures
+     */
+    public Lease lease(final URI url, final int sessions)
+        throws IOException {
+        val slots = max(1, min(sessions, maxSessions));
+        val keyed = connections.computeIfAbsent(Key.of(url),
+            key -> new ConcurrentLinkedQueue<>());
+
+        for (val connection : keyed) {
+            if (!connection.isHealthy()) {
+                log.debug("discarding broken connection to {}",
+                    url.getHost());
+                if (keyed.remove(connection))
+                    connection.disconnect();
+            } else if (connection.sessions.tryAcquire(slots))
+                return new Lease(connection, slots);
+        }
+
+        val connection = new Connection(connect(url));
+        connection.sessions.acquireUninterruptibly(slots);
+        keyed.add(connection);
+        return new Lease(connection, slots);
+    }
+
+    private SSHClient connect(final URI url) throws IOException {
+        log.debug("connecting to {}", url.getHost()); //$NON-NLS-1$
+        val client = new SSHClient(config);
+        client.setConnectTimeout(connectionTimeout);
+        client.setTimeout(readTimeout);
+        client.addHostKeyVerifier(hostKeyVerifier);
+        try {
+            client.connect(url.getHost(), -1 == url.getPort()
+                ? SSHClient.DEFAULT_PORT
+                : url.getPort());
+            return new SshInfo(url.getUserInfo()).authenticate(client);
+        } catch (final IOException e) {
+            client.close();
+            throw e;
+        }
+    }
+
+    private void evict() {
+        val now = System.nanoTime();
+        connections.values().forEach(keyed -> keyed.removeIf(connection -> {
+            // NOTE taking all slots prevents leasing while disconnecting
+            if (now - connection.idleSince > idleTimeout.toNanos()
+                && connection.sessions.tryAcquire(maxSessions)) {
+                log.debug("evicting idle connection {}", connection.client);
+                connection.disconnect();
+                return true;
+            }
+            return false;
+        }));
+    }
+
+    /**
+     * Session slots on a pooled connection; closing it returns the slots.
+     */
+    public final class Lease implements AutoCloseable {
+        /**
+         * The connected and authenticated client; should not be closed.
+         */
+        public final SSHClient   client;
+        /**
+         * Number of session slots held by this lease.
+         */
+        public final int         sessions;
+        private final Connection connection;
+
+        private Lease(final Connection connection, final int sessions) {
+            this.client = connection.client;
+            this.sessions = sessions;
+            this.connection = connection;
+        }
+
+        @Override
+        public void close() {
+            connection.idleSince = System.nanoTime();
+            connection.sessions.release(sessions);
+        }
+    }
+
+    @Value
+    private static class Key {
+        String host;
+        int    port;
+        String sshInfo;
+
+        static Key of(final URI url) {
+            return new Key(requireNonNull(url.getHost(), "host"),
+                url.getPort(), url.getUserInfo());
+        }
+    }
+
+    private final class Connection {
+        final SSHClient client;
+        final Semaphore sessions  = new Semaphore(maxSessions);
+        volatile long   idleSince = System.nanoTime();
+
+        Connection(final SSHClient client) {
+            this.client = client;
+        }
+
+        boolean isHealthy() {
+            return client.isConnected() && client.isAuthenticated();
+        }
+
+        void disconnect() {
+            try {
+                client.disconnect();
+            } catch (final IOException e) {
+                log.warn("connection already closed {}", e.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.jgiven.ssh.utils;
+
+import static dev.aherscu.qa.jgiven.commons.utils.ConnectionDefaults.*;
+import static dev.aherscu.qa.testing.utils.StringUtilsExtensions.*;
+import static java.nio.charset.StandardCharsets.*;
+import static java.util.Objects.*;
+import static java.util.stream.Collectors.*;
+
+import java.io.*;
+import java.net.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+import org.apache.commons.io.*;
+
+import dev.aherscu.qa.jgiven.commons.utils.*;
+import dev.aherscu.qa.jgiven.ssh.model.*;
+import lombok.*;
+import lombok.extern.slf4j.*;
+
+/**
+ * Executes one command across many hosts, with bounded concurrency.
+ *
+ * <p>
+ * Each host gets a session leased from the {@link SshConnectionPool}; failures
+ * on one host, including timeouts, are recorded in its {@link SshResult} and do
+ * not affect other hosts.
+ * </p>
+ *
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * val results = SshFanOut.builder()
+ *     .pool(pool)
+ *     .parallelism(16)
+ *     .build()
+ *     .execute(hosts, "uptime");
+ * </pre>
+ * </p>
+ */
+@Slf4j
+public final class SshFanOut {
+    /**
+     * Default number of hosts to execute on concurrently.
+     */
+    public static final int         DEFAULT_PARALLELISM = 16;
+
+    private final SshConnectionPool pool;
+    private final int               parallelism;
+    private final Duration          timeout;
+
+    /**
+     * @param pool
+     *            the pool from which to lease connections
+     * @param parallelism
+     *            maximum number of hosts to execute on concurrently; defaults
+     *            to {@link #DEFAULT_PARALLELISM}
+     * @param timeout
+     *            maximum time to wait for the command to complete on each host,
+     *            including reading all its output; zero waits indefinitely;
+     *            defaults to
+     *            {@link ConnectionDefaults#DEFAULT_EXECUTION_TIMEOUT}
+     */
+    @Builder
+    private SshFanOut(
+        final SshConnectionPool pool,
+        final Integer parallelism,
+        final Duration timeout) {
+        this.pool = requireNonNull(pool, "must provide a connection pool");
+        this.parallelism =
+            requireNonNullElse(parallelism, DEFAULT_PARALLELISM);
+        this.timeout = requireNonNullElse(timeout,
+            Duration.ofMillis(DEFAULT_EXECUTION_TIMEOUT));
+    }
+
+    /**
+     * Executes a command on all specified hosts.
+     *
+     * @param urls
+     *            the hosts, each with its {@code ssh-info} as specified by
+     *            {@link SshInfo}
+     * @param command
+     *            the command
+     * @return results by host, in same order as specified hosts
+     */
+    @SneakyThrows(InterruptedException.class)
+    public Map<URI, SshResult> execute(
+        final Collection<URI> urls,
+        final String command) {
+        log.debug("executing {} on {} hosts, {} at a time",
+            command, urls.size(), parallelism);
+        val threads = Math.max(1, Math.min(parallelism, urls.size()));
+        val hosts = Executors.newFixedThreadPool(threads);
+        // NOTE output and error are drained concurrently, otherwise a command
+        // writing much to one would stall before completing the other, and
+        // reading could not be bounded by the timeout
+        val streams = Executors.newFixedThreadPool(2 * threads);
+        try {
+            val futures = new LinkedHashMap<URI, Future<SshResult>>();
+            urls.forEach(url -> futures.put(url,
+                hosts.submit(() -> execute(url, command, streams))));
+
+            val results = new LinkedHashMap<URI, SshResult>();
+            for (val future : futures.entrySet())
+                results.put(future.getKey(), getResult(future.getValue()));
+            log.debug("executed {}: {}", command, results.values().stream()
+                .map(SshResult::toString)
+                .collect(joining(COMMA + SPACE)));
+            return results;
+        } finally {
+            hosts.shutdownNow();
+            streams.shutdownNow();
+        }
+    }
+
+    private static SshResult getResult(final Future<SshResult> future)
+        throws InterruptedException {
+        try {
+            return future.get();
+        } catch (final ExecutionException e) {
+            // NOTE execute(URI, String, Executor) records its failures
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private SshResult execute(
+        final URI url,
+        final String command,
+        final Executor streams) {
+        val result = SshResult.builder().url(url);
+        val started = System.nanoTime();
+        // NOTE on timeout, closing the execution unblocks the readers
+        try (val lease = pool.lease(url);
+            val session = lease.client.startSession();
+            val execution = session.exec(toUnix(command))) {
+            val output = CompletableFuture.supplyAsync(
+                readingFully(execution.getInputStream()), streams);
+            val error = CompletableFuture.supplyAsync(
+                readingFully(execution.getErrorStream()), streams);
+            result.output(awaiting(output, started));
+            execution.join(remainingNanos(started), TimeUnit.NANOSECONDS);
+            result
+                .exitStatus(execution.getExitStatus())
+                .error(awaiting(error, started));
+        } catch (final TimeoutException e) {
+            log.warn("timed out executing on {}", url.getHost());
+            result.failure("timed out after " + timeout);
+        } catch (final IOException | ExecutionException
+            | RuntimeException e) {
+            log.warn("failed executing on {}: {}", url.getHost(),
+                e.toString());
+            result.failure(e.toString());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.failure(e.toString());
+        }
+        return result
+            .latency(Duration.ofNanos(System.nanoTime() - started))
+            .build();
+    }
+
+    private <T> T awaiting(final Future<T> future, final long started)
+        throws InterruptedException, ExecutionException, TimeoutException {
+        return timeout.isZero()
+            ? future.get()
+            : future.get(remainingNanos(started), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return time left until timeout, at least 1ns, or 0 if there is no
+     *         timeout, as expected by sshj
+     */
+    private long remainingNanos(final long started) {
+        return timeout.isZero()
+            ? 0
+            : Math.max(1,
+                timeout.toNanos() - (System.nanoTime() - started));
+    }
+
+    private static Supplier<String> readingFully(final InputStream stream) {
+        return () -> {
+            try {
+                return IOUtils.toString(stream, UTF_8);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+}
@@ -18,6 +18,7 @@ package dev.aherscu.qa.jgiven.webdriver;
 
 import static java.util.Objects.*;
 
+import org.testng.*;
 import org.testng.annotations.*;
 
 import dev.aherscu.qa.jgiven.commons.utils.*;
@@ -81,6 +82,16 @@ public abstract class ApplicationPerClassWebSessionTest<C extends WebDriverConfi
         // do nothing
     }
 
+    /**
+     * Disables per method WebDriver management.
+     *
+     * @see #beforeMethodOpenWebDriver()
+     */
+    @Override
+    protected final void afterMethodReleaseWebDriver(final ITestResult result) {
+        // do nothing
+    }
+
     /**
      * Disables per method WebDriver management.
      *
@@ -91,6 +102,14 @@ public abstract class ApplicationPerClassWebSessionTest<C extends WebDriverConfi
         // do nothing
     }
 
+    /**
+     * Disables session pooling.
+     */
+    @Override
+    protected final void beforeClassWarmUpSessionPool() {
+        // do nothing
+    }
+
     /**
      * Opens the managed WebDriver before any test method begins running.
      */
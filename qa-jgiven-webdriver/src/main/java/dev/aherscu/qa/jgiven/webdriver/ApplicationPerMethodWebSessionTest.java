@@ -17,11 +17,13 @@ package dev.aherscu.qa.jgiven.webdriver;
 
 import static java.util.Objects.*;
 
+import org.testng.*;
 import org.testng.annotations.*;
 
 import dev.aherscu.qa.jgiven.commons.utils.*;
 import dev.aherscu.qa.jgiven.webdriver.steps.*;
 import dev.aherscu.qa.jgiven.webdriver.tags.*;
+import dev.aherscu.qa.jgiven.webdriver.utils.*;
 import lombok.*;
 import lombok.extern.slf4j.*;
 
@@ -34,6 +36,16 @@ import lombok.extern.slf4j.*;
  * </p>
  *
  * <p>
+ * If {@link #sessionPool()} returns a pool, sessions are borrowed from it
+ * instead, and released back to it after each test method, saving the session
+ * creation time. Enable the default pool by setting the
+ * {@code webdriver.session.pool} system property to {@code true}, and have it
+ * warmed up before each class by setting the
+ * {@code webdriver.session.pool.warmup} system property to the number of
+ * sessions to pre-create.
+ * </p>
+ *
+ * <p>
  * Eventually, multiple support classes may be derived from this one and
  * override above behaviors as needed.
  * </p>
@@ -64,9 +76,11 @@ public abstract class ApplicationPerMethodWebSessionTest<C extends WebDriverConf
     }
 
     /**
-     * After each test method finishes, closes the managed WebDriver.
+     * After each test method finishes, closes the managed WebDriver, unless it
+     * was borrowed from {@link #sessionPool()}.
+     *
+     * @see #afterMethodReleaseWebDriver(ITestResult)
      */
-    @AfterMethod(alwaysRun = true)
     protected void afterMethodQuitWebDriver() {
         log.debug("after method quitting web driver");
         requireNonNull(webDriver.get(),
@@ -74,19 +88,83 @@ public abstract class ApplicationPerMethodWebSessionTest<C extends WebDriverConf
             .safelyQuit();
     }
 
+    /**
+     * After each test method finishes, releases the managed WebDriver to
+     * {@link #sessionPool()}, or if there is no pool, calls
+     * {@link #afterMethodQuitWebDriver()}.
+     *
+     * @param result
+     *            the result of the test method; sessions of failed methods are
+     *            not pooled again
+     */
+    @AfterMethod(alwaysRun = true)
+    protected void afterMethodReleaseWebDriver(final ITestResult result) {
+        val pool = sessionPool();
+        if (isNull(pool))
+            afterMethodQuitWebDriver();
+        else {
+            log.debug("after method releasing web driver");
+            pool.release(webDriver.get(), !result.isSuccess());
+        }
+    }
+
+    /**
+     * Before each class, if there is a {@link #sessionPool()}, warms it up with
+     * {@link #sessionPoolWarmUp()} sessions having
+     * {@link WebDriverConfiguration#capabilities()}.
+     */
+    @BeforeClass
+    protected void beforeClassWarmUpSessionPool() {
+        val pool = sessionPool();
+        val count = sessionPoolWarmUp();
+        if (nonNull(pool) && count > 0) {
+            log.debug("before class warming up web driver session pool");
+            pool.warmUp(configuration().capabilities(), count);
+        }
+    }
+
     /**
      * Before each test method begins execution, opens the managed WebDriver
-     * using {@link WebDriverConfiguration}.
+     * using {@link WebDriverConfiguration}, or borrows it from
+     * {@link #sessionPool()}.
      */
     @BeforeMethod
     @SneakyThrows
     protected void beforeMethodOpenWebDriver() {
         log.debug("before method opening web driver");
-        webDriver.set(requireNonNull(WebDriverEx
-            .from(configuration().capabilities()),
+        val pool = sessionPool();
+        val capabilities = configuration().capabilities();
+        webDriver.set(requireNonNull(isNull(pool)
+            ? WebDriverEx.from(capabilities)
+            : pool.borrow(capabilities),
             "web driver failed to initialize, look above in logs to find the stacktrace and exceptionS"));
     }
 
+    /**
+     * Override to use a specific pool.
+     *
+     * @return the pool from which to borrow sessions, or null for a new session
+     *         per test method; by default {@link WebDriverSessionPool#DEFAULT}
+     *         if the {@code webdriver.session.pool} system property is
+     *         {@code true}
+     */
+    protected WebDriverSessionPool sessionPool() {
+        return Boolean.getBoolean("webdriver.session.pool")
+            ? WebDriverSessionPool.DEFAULT
+            : null;
+    }
+
+    /**
+     * Override to warm up the pool with a specific number of sessions.
+     *
+     * @return number of sessions to have in {@link #sessionPool()} before each
+     *         class; by default the {@code webdriver.session.pool.warmup}
+     *         system property, or zero if not set
+     */
+    protected int sessionPoolWarmUp() {
+        return Integer.getInteger("webdriver.session.pool.warmup", 0);
+    }
+
     /**
      * Scenario starting section that uses the managed WebDriver.
      */
@@ -90,6 +90,36 @@ public class WebDriverVerifications<SELF extends WebDriverVerifications<SELF>>
         }
     }
 
+    /**
+     * Verifies that the state of a specific element matches given criteria. The
+     * element is brought into view and its state is retrieved in a single
+     * round-trip, regardless of how many conditions are checked.
+     *
+     * @param locator
+     *            the element to look for
+     * @param matcher
+     *            the criteria
+     * @param attributes
+     *            names of attributes to retrieve, if the criteria need them
+     * @return {@link #self()}
+     * @throws NoSuchElementException
+     *             if the element does not exist
+     * @see WebDriverEx#scrollIntoViewAndStateOf(WebElement, String...)
+     */
+    public SELF element_state(
+        final By locator,
+        final Matcher<? super ElementState> matcher,
+        @Hidden final String... attributes) {
+        try (val assertElementContext = assertElementTimer.time()) {
+            return eventually(self -> {
+                log.debug("element state {} {}", locator, matcher);
+                MatcherAssert.assertThat(stateOf(locator, attributes),
+                    matcher);
+                return self();
+            });
+        }
+    }
+
     /**
      * Verifies that a specific set of elements matches given criteria.
      *
@@ -109,6 +139,31 @@ public class WebDriverVerifications<SELF extends WebDriverVerifications<SELF>>
         });
     }
 
+    /**
+     * Verifies that the states of a specific set of elements match given
+     * criteria. The states of all elements are retrieved in a single
+     * round-trip.
+     *
+     * @param locator
+     *            the elements to look for
+     * @param matcher
+     *            the criteria
+     * @param attributes
+     *            names of attributes to retrieve, if the criteria need them
+     * @return {@link #self()}
+     * @see WebDriverEx#statesOf(List, String...)
+     */
+    public SELF elements_states(
+        final By locator,
+        final Matcher<? super List<ElementState>> matcher,
+        @Hidden final String... attributes) {
+        return eventually(self -> {
+            log.debug("expecting states {}", matcher);
+            MatcherAssert.assertThat(statesOf(locator, attributes), matcher);
+            return self;
+        });
+    }
+
     /**
      * Verifies application state matches specified criteria.
      *
@@ -179,6 +234,55 @@ public class WebDriverVerifications<SELF extends WebDriverVerifications<SELF>>
         return elements(locator, thisWebDriver().asGeneric());
     }
 
+    /**
+     * Finds an element by specified locator, brings it into view and retrieves
+     * its state. If the locator is matching multiple elements then the first
+     * one is used.
+     *
+     * <p>
+     * {@code locateTimer} metric will be updated not including the scrolling
+     * into view and state retrieval, which take a single round-trip.
+     * </p>
+     *
+     * @param locator
+     *            the locator
+     * @param attributes
+     *            names of attributes to retrieve
+     * @return the state of element
+     * @throws NoSuchElementException
+     *             If no matching elements are found
+     */
+    protected ElementState stateOf(
+        final By locator,
+        final String... attributes) {
+        log.debug("locating {}", locator);
+        val found = elements(locator, thisWebDriver().asGeneric());
+        if (found.isEmpty())
+            throw new NoSuchElementException("no element " + locator);
+        return thisWebDriver()
+            .scrollIntoViewAndStateOf(found.get(0), attributes);
+    }
+
+    /**
+     * Finds all elements matching specified locator and retrieves their states.
+     *
+     * <p>
+     * {@code locateTimer} metric will be updated not including the state
+     * retrieval, which takes a single round-trip.
+     * </p>
+     *
+     * @param locator
+     *            the locator
+     * @param attributes
+     *            names of attributes to retrieve
+     * @return the states of elements, possibly empty
+     */
+    protected List<ElementState> statesOf(
+        final By locator,
+        final String... attributes) {
+        return thisWebDriver().statesOf(elements(locator), attributes);
+    }
+
     /**
      * Scrolls specified element into view.
      *
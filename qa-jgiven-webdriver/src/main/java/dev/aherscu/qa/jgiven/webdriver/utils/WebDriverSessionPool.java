@@ -0,0 +1,282 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.jgiven.webdriver.utils;
+
+import static com.codahale.metrics.MetricRegistry.*;
+import static dev.aherscu.qa.jgiven.commons.utils.MetricReporterSuiteListener.*;
+import static java.util.Objects.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+import org.openqa.selenium.*;
+
+import com.codahale.metrics.*;
+
+import dev.aherscu.qa.jgiven.commons.utils.*;
+import lombok.*;
+import lombok.extern.slf4j.*;
+
+/**
+ * Pool of warm WebDriver sessions, keyed by capabilities, ignoring the per-test
+ * {@code sauce:name} capability.
+ *
+ * <p>
+ * Sessions are reset upon release, by default by deleting all cookies, clearing
+ * local and session storages, and navigating to {@code about:blank}. A session
+ * is quit instead of being pooled again after {@link #maxUses} uses, upon test
+ * failure, or if resetting it failed.
+ * </p>
+ *
+ * <p>
+ * Metrics: {@code webdriver.pool.hits} and {@code webdriver.pool.misses} count
+ * borrowed sessions found in pool versus created upon borrowing,
+ * {@code webdriver.pool.creation} times session creation.
+ * </p>
+ *
+ * <p>
+ * A borrowed session is registered in {@link WebDriverEx#remoteSessions} under
+ * the {@code sauce:name} of the borrowing test, and unregistered upon release,
+ * hence each test reports its own result on the sessions it used.
+ * </p>
+ */
+@Slf4j
+public final class WebDriverSessionPool implements AutoCloseable {
+    /**
+     * Default number of uses after which a session is quit.
+     */
+    public static final int                                              DEFAULT_MAX_USES =
+        20;
+    /**
+     * Default pool, quitting its idle sessions upon JVM shutdown.
+     */
+    public static final WebDriverSessionPool                             DEFAULT          =
+        WebDriverSessionPool.builder().build();
+
+    private static final String                                          SESSION_NAME     =
+        "sauce:name";
+    private static final com.codahale.metrics.Timer                      creationTimer    =
+        METRIC_REGISTRY.timer(name("webdriver.pool.creation"),
+            HdrHistogramReservoir::timer);
+    private static final Counter                                         hits             =
+        METRIC_REGISTRY.counter(name("webdriver.pool.hits"));
+    private static final Counter                                         misses           =
+        METRIC_REGISTRY.counter(name("webdriver.pool.misses"));
+
+    public final int                                                     maxUses;
+    private final Function<Capabilities, WebDriverEx>                    factory;
+    private final Consumer<WebDriverEx>                                  reset;
+    private final ConcurrentMap<Map<String, Object>, Deque<WebDriverEx>> idle             =
+        new ConcurrentHashMap<>();
+    private final Map<WebDriverEx, AtomicInteger>                        uses             =
+        new ConcurrentHashMap<>();
+    private final Map<WebDriverEx, SessionName>                          holders          =
+        new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(
+            new Thread(DEFAULT::close, "webdriver-pool-shutdown"));
+    }
+
+    /**
+     * @param maxUses
+     *            number of uses after which a session is quit; defaults to
+     *            {@link #DEFAULT_MAX_USES}
+     * @param factory
+     *            creates a session, returning null if creation failed; defaults
+     *            to {@link WebDriverEx#from(Capabilities)}
+     * @param reset
+     *            resets a session before pooling it again; defaults to
+     *            {@link #resetWebSession(WebDriverEx)}
+     */
+    @Builder
+    private WebDriverSessionPool(
+        final Integer maxUses,
+        final Function<Capabilities, WebDriverEx> factory,
+        final Consumer<WebDriverEx> reset) {
+        this.maxUses = requireNonNullElse(maxUses, DEFAULT_MAX_USES);
+        this.factory = requireNonNullElse(factory, WebDriverEx::from);
+        this.reset = requireNonNullElse(reset,
+            WebDriverSessionPool::resetWebSession);
+    }
+
+    /**
+     * Deletes all cookies, clears local and session storages, and navigates to
+     * {@code about:blank}.
+     *
+     * @param driver
+     *            the driver to reset
+     */
+    public static void resetWebSession(final WebDriverEx driver) {
+        driver.asGeneric().manage().deleteAllCookies();
+        driver.asJavaScriptExecutor().executeScript(
+            "window.localStorage.clear(); window.sessionStorage.clear();");
+        driver.asGeneric().navigate().to("about:blank");
+    }
+
+    private static Map<String, Object> keyOf(final Capabilities capabilities) {
+        val key = new HashMap<>(capabilities.asMap());
+        key.remove(SESSION_NAME);
+        return key;
+    }
+
+    private static SessionName sessionNameOf(final Capabilities capabilities) {
+        val name = capabilities.getCapability(SESSION_NAME);
+        return isNull(name) ? null : SessionName.from(name.toString());
+    }
+
+    /**
+     * Borrows a session having specified capabilities, creating it if there is
+     * no such session in pool.
+     *
+     * @param capabilities
+     *            the capabilities
+     * @return the session, or null if creation failed or in dry-run mode; see
+     *         {@link WebDriverEx#from(Capabilities)}
+     */
+    public WebDriverEx borrow(final Capabilities capabilities) {
+        var driver = idleFor(keyOf(capabilities)).pollFirst();
+        if (nonNull(driver)) {
+            log.debug("reusing session {}", driver);
+            hits.inc();
+            val sessionName = sessionNameOf(capabilities);
+            if (nonNull(sessionName)) {
+                driver.registerAs(sessionName);
+                holders.put(driver, sessionName);
+            }
+        } else {
+            misses.inc();
+            driver = create(capabilities);
+        }
+
+        if (nonNull(driver))
+            uses.get(driver).incrementAndGet();
+        return driver;
+    }
+
+    /**
+     * Quits all pooled sessions. Borrowed sessions are quit upon their release.
+     */
+    @Override
+    public void close() {
+        idle.values().forEach(drivers -> {
+            WebDriverEx driver;
+            while (nonNull(driver = drivers.pollFirst()))
+                quit(driver);
+        });
+    }
+
+    /**
+     * @return number of sessions in pool, not including borrowed ones
+     */
+    public int idle() {
+        return idle.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    /**
+     * Releases a borrowed session, either back to pool after resetting it, or
+     * by quitting it.
+     *
+     * @param driver
+     *            the session; ignored if null
+     * @param failed
+     *            whether the test using the session failed, in which case the
+     *            session is quit
+     */
+    public void release(final WebDriverEx driver, final boolean failed) {
+        if (isNull(driver))
+            return;
+
+        unregister(driver);
+        val used = uses.get(driver);
+        if (failed || isNull(used) || used.get() >= maxUses) {
+            log.debug("recycling session {}", driver);
+            quit(driver);
+            return;
+        }
+
+        try {
+            reset.accept(driver);
+        } catch (final WebDriverException e) {
+            log.warn("failed resetting session {}", e.toString());
+            quit(driver);
+            return;
+        }
+        idleFor(keyOf(driver.originalCapabilities)).offerFirst(driver);
+    }
+
+    /**
+     * Creates sessions having specified capabilities, concurrently, and pools
+     * them, until there are specified number of such sessions in pool. Created
+     * sessions are not registered for any test.
+     *
+     * @param capabilities
+     *            the capabilities
+     * @param count
+     *            number of sessions to have in pool
+     * @return this pool
+     */
+    public WebDriverSessionPool warmUp(
+        final Capabilities capabilities,
+        final int count) {
+        val idleSessions = idleFor(keyOf(capabilities));
+        val missing = count - idleSessions.size();
+        log.debug("warming up {} sessions with {}", missing, capabilities);
+        IntStream.range(0, missing)
+            .mapToObj(i -> CompletableFuture
+                .supplyAsync(() -> create(capabilities)))
+            .collect(Collectors.toList())
+            .stream()
+            .map(CompletableFuture::join)
+            .filter(Objects::nonNull)
+            .peek(this::unregister)
+            .forEach(idleSessions::offerLast);
+        return this;
+    }
+
+    private WebDriverEx create(final Capabilities capabilities) {
+        try (val timing = creationTimer.time()) {
+            val driver = factory.apply(capabilities);
+            if (nonNull(driver)) {
+                uses.put(driver, new AtomicInteger());
+                // NOTE registered upon creation, see WebDriverEx#from
+                val sessionName = sessionNameOf(capabilities);
+                if (nonNull(sessionName))
+                    holders.put(driver, sessionName);
+            }
+            return driver;
+        }
+    }
+
+    private Deque<WebDriverEx> idleFor(final Map<String, Object> key) {
+        return idle.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>());
+    }
+
+    private void quit(final WebDriverEx driver) {
+        uses.remove(driver);
+        driver.safelyQuit();
+    }
+
+    private void unregister(final WebDriverEx driver) {
+        val sessionName = holders.remove(driver);
+        if (nonNull(sessionName))
+            driver.unregisterFrom(sessionName);
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.jgiven.webdriver.utils;
+
+import static dev.aherscu.qa.jgiven.commons.utils.MetricReporterSuiteListener.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+import org.openqa.selenium.*;
+import org.openqa.selenium.remote.*;
+import org.testng.annotations.*;
+
+import dev.aherscu.qa.jgiven.commons.utils.*;
+import lombok.*;
+
+public class WebDriverSessionPoolTest {
+    private static final Consumer<WebDriverEx> NO_RESET = driver -> {
+    };
+    private final List<WebDriverEx>            created  =
+        new CopyOnWriteArrayList<>();
+
+    private static Capabilities capabilitiesOf(final String method) {
+        return new ImmutableCapabilities(
+            "browserName", "chrome",
+            "sauce:name",
+            "WebDriverSessionPoolTest:" + method + "::1:"
+                + System.nanoTime());
+    }
+
+    private static Collection<WebDriverSessionInfo> registeredFor(
+        final String method) {
+        return WebDriverEx.remoteSessions.get(SessionName
+            .from("WebDriverSessionPoolTest:" + method + "::1:"));
+    }
+
+    private static long count(final String name) {
+        return METRIC_REGISTRY.counter(name).getCount();
+    }
+
+    @BeforeMethod
+    public void beforeMethodClearCreatedSessions() {
+        created.clear();
+    }
+
+    @Test
+    public void shouldReuseSessionIgnoringSessionName() {
+        val pool = poolOf(20, NO_RESET);
+        val hits = count("webdriver.pool.hits");
+        val misses = count("webdriver.pool.misses");
+
+        val first = pool.borrow(capabilitiesOf("reuse1"));
+        pool.release(first, false);
+        val second = pool.borrow(capabilitiesOf("reuse2"));
+
+        assertThat(second, sameInstance(first));
+        assertThat(created, hasSize(1));
+        assertThat(count("webdriver.pool.hits") - hits, is(1L));
+        assertThat(count("webdriver.pool.misses") - misses, is(1L));
+    }
+
+    @Test
+    public void shouldRegisterSessionUnderBorrowingTest() {
+        val pool = poolOf(20, NO_RESET);
+
+        val driver = pool.borrow(capabilitiesOf("register1"));
+        assertThat(registeredFor("register1"), hasSize(1));
+
+        pool.release(driver, false);
+        assertThat(registeredFor("register1"), empty());
+
+        pool.borrow(capabilitiesOf("register2"));
+        assertThat(registeredFor("register1"), empty());
+        assertThat(registeredFor("register2").stream()
+            .map(sessionInfo -> sessionInfo.sessionId)
+            .collect(Collectors.toList()),
+            contains(driver.asRemote().getSessionId()));
+
+        pool.release(driver, false);
+        assertThat(registeredFor("register2"), empty());
+    }
+
+    @Test
+    public void shouldQuitAfterMaxUses() {
+        val pool = poolOf(2, NO_RESET);
+
+        val driver = pool.borrow(capabilitiesOf("uses"));
+        pool.release(driver, false);
+        pool.release(pool.borrow(capabilitiesOf("uses")), false);
+
+        assertThat(pool.idle(), is(0));
+        verify(driver.asRemote()).quit();
+        assertThat(pool.borrow(capabilitiesOf("uses")),
+            not(sameInstance(driver)));
+    }
+
+    @Test
+    public void shouldQuitUponTestFailure() {
+        val pool = poolOf(20, NO_RESET);
+
+        val driver = pool.borrow(capabilitiesOf("failure"));
+        pool.release(driver, true);
+
+        assertThat(pool.idle(), is(0));
+        verify(driver.asRemote()).quit();
+    }
+
+    @Test
+    public void shouldQuitUponResetFailure() {
+        val pool = poolOf(20, driver -> {
+            throw new WebDriverException("reset failed");
+        });
+
+        val driver = pool.borrow(capabilitiesOf("reset"));
+        pool.release(driver, false);
+
+        assertThat(pool.idle(), is(0));
+        verify(driver.asRemote()).quit();
+    }
+
+    @Test
+    public void shouldWarmUpUnregisteredSessions() {
+        val pool = poolOf(20, NO_RESET);
+
+        pool.warmUp(capabilitiesOf("warmup"), 2);
+        pool.warmUp(capabilitiesOf("warmup"), 2);
+
+        assertThat(created, hasSize(2));
+        assertThat(pool.idle(), is(2));
+        assertThat(registeredFor("warmup"), empty());
+    }
+
+    private WebDriverEx create(final Capabilities capabilities) {
+        val remote = mock(RemoteWebDriver.class);
+        when(remote.getSessionId())
+            .thenReturn(new SessionId(UUID.randomUUID().toString()));
+        val driver = new WebDriverEx(remote, capabilities);
+        // NOTE as done by WebDriverEx.from
+        driver.registerAs(SessionName.from(
+            capabilities.getCapability("sauce:name").toString()));
+        created.add(driver);
+        return driver;
+    }
+
+    private WebDriverSessionPool poolOf(
+        final int maxUses,
+        final Consumer<WebDriverEx> reset) {
+        return WebDriverSessionPool.builder()
+            .maxUses(maxUses)
+            .factory(this::create)
+            .reset(reset)
+            .build();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.testing.benchmarks;
+
+import static java.util.concurrent.TimeUnit.*;
+
+import java.sql.*;
+import java.util.stream.*;
+
+import org.apache.commons.dbutils.*;
+import org.openjdk.jmh.annotations.*;
+
+import com.zaxxer.hikari.*;
+
+import dev.aherscu.qa.jgiven.jdbc.utils.dbutils.*;
+import lombok.*;
+
+/**
+ * Compares streaming rows into beans via precompiled mappers against
+ * reflective mapping per row, over an in-memory Derby table.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BeanStreamingHandlerBenchmark {
+    @Data
+    public static class Row {
+        long      id;
+        String    name;
+        double    amount;
+        Timestamp created;
+        boolean   active;
+    }
+
+    private static final String  QUERY =
+        "select ID, NAME, AMOUNT, CREATED, ACTIVE from BENCHMARK_TABLE";
+
+    @Param({ "1000", "100000" })
+    public int                   rows;
+
+    private HikariDataSource     dataSource;
+    private StreamingQueryRunner queryRunner;
+
+    @Setup
+    @SneakyThrows
+    public void setup() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(
+            "jdbc:derby:memory:BeanStreamingHandlerBenchmark" + rows
+                + ";create=true");
+        queryRunner = new StreamingQueryRunner(dataSource);
+        queryRunner.execute("create table BENCHMARK_TABLE("
+            + "ID BIGINT, NAME VARCHAR(20), AMOUNT DOUBLE,"
+            + " CREATED TIMESTAMP, ACTIVE BOOLEAN)");
+        queryRunner.batch(
+            "insert into BENCHMARK_TABLE values (?, ?, ?, ?, ?)",
+            IntStream.range(0, rows)
+                .mapToObj(i -> new Object[] {
+                    (long) i,
+                    "name " + i,
+                    i * 1.5,
+                    new Timestamp(i * 1000L),
+                    0 == i % 2 })
+                .toArray(Object[][]::new));
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    @SneakyThrows
+    public long precompiled() {
+        try (val results = queryRunner
+            .queryStream(QUERY, new BeanStreamingHandler<>(Row.class))) {
+            return results.count();
+        }
+    }
+
+    @Benchmark
+    @SneakyThrows
+    public long reflective() {
+        try (val results = queryRunner
+            .queryStream(QUERY, new StreamingResultSetHandler<Row>() {
+                private final BasicRowProcessor rowProcessor =
+                    new BasicRowProcessor();
+
+                @Override
+                protected Row handleRow(final ResultSet rs)
+                    throws SQLException {
+                    return rowProcessor.toBean(rs, Row.class);
+                }
+            })) {
+            return results.count();
+        }
+    }
+}
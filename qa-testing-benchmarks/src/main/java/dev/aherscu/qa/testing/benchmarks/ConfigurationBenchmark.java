@@ -0,0 +1,77 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.testing.benchmarks;
+
+import static java.util.concurrent.TimeUnit.*;
+
+import java.util.*;
+import java.util.stream.*;
+
+import org.apache.commons.configuration.*;
+import org.openjdk.jmh.annotations.*;
+
+import dev.aherscu.qa.testing.utils.config.BaseConfiguration;
+
+/**
+ * Measures configuration lookups, as done by tests for each configured
+ * property.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ConfigurationBenchmark {
+    @Param({ "50", "500" })
+    public int                size;
+
+    private BaseConfiguration configuration;
+
+    @Setup
+    public void setup() {
+        final Map<String, Object> properties = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            properties.put("capability" + i % 10 + ".key" + i, "value" + i);
+        }
+        properties.put("base.url", "https://localhost:8080");
+        properties.put("service.url", "${base.url}/service");
+        configuration = new BaseConfiguration(
+            new MapConfiguration(properties));
+    }
+
+    @Benchmark
+    public String getString() {
+        return configuration.getString("base.url");
+    }
+
+    @Benchmark
+    public Object mapGet() {
+        return configuration.get("base.url");
+    }
+
+    @Benchmark
+    public String resolve() {
+        return configuration.resolve("${service.url}/path");
+    }
+
+    @Benchmark
+    public List<Map<String, String>> groupsOf() {
+        return configuration.groupsOf("capability")
+            .collect(Collectors.toList());
+    }
+}
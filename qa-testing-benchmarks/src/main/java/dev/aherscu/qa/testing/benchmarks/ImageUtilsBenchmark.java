@@ -0,0 +1,69 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.testing.benchmarks;
+
+import static dev.aherscu.qa.testing.utils.ImageUtils.*;
+import static java.util.concurrent.TimeUnit.*;
+
+import java.awt.image.*;
+import java.io.*;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the image pipeline as used for screenshot attachments and report
+ * thumbnails.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ImageUtilsBenchmark {
+    private byte[]        png;
+    private BufferedImage image;
+
+    @Setup
+    public void setup() {
+        png = Samples.screenshot();
+        image = Pipeline.from(new ByteArrayInputStream(png)).image;
+    }
+
+    @Benchmark
+    public BufferedImage decode() {
+        return Pipeline.from(new ByteArrayInputStream(png)).image;
+    }
+
+    @Benchmark
+    public BufferedImage reduceToGreyScale() {
+        return Pipeline.from(image).reduce(GREY_SCALE_COLOR_MODEL).image;
+    }
+
+    @Benchmark
+    public BufferedImage scaleDown() {
+        return Pipeline.from(image).scale(0.2, 0.2).image;
+    }
+
+    @Benchmark
+    public byte[] decodeReduceEncode() {
+        return Pipeline.from(new ByteArrayInputStream(png))
+            .reduce(GREY_SCALE_COLOR_MODEL)
+            .into(new ByteArrayOutputStream(4096), "png")
+            .toByteArray();
+    }
+}
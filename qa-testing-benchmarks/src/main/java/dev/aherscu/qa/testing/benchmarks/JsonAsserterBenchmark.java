@@ -0,0 +1,66 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.testing.benchmarks;
+
+import static java.util.concurrent.TimeUnit.*;
+import static org.hamcrest.Matchers.*;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.jayway.jsonpath.*;
+
+import dev.aherscu.qa.testing.utils.assertions.*;
+import dev.aherscu.qa.testing.utils.assertions.impl.*;
+
+/**
+ * Measures JSON path assertions, with and without parsing the document.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JsonAsserterBenchmark {
+    private String json;
+    private Object parsed;
+
+    @Setup
+    public void setup() {
+        json = Samples.json();
+        parsed = JsonPath.parse(json).json();
+    }
+
+    @Benchmark
+    public JsonAsserter assertThatOnParsed() {
+        return new JsonAsserterImpl(parsed)
+            .assertThat("$.store.book[42].title", equalTo("title-42"));
+    }
+
+    @Benchmark
+    public JsonAsserter assertThatWithFilter() {
+        return new JsonAsserterImpl(parsed)
+            .assertThat("$.store.book[?(@.price > 50)].author",
+                hasItem("author-99"));
+    }
+
+    @Benchmark
+    public JsonAsserter parseAndAssertThat() {
+        return JsonAssert.with(json)
+            .assertThat("$.store.book[42].title", equalTo("title-42"));
+    }
+}
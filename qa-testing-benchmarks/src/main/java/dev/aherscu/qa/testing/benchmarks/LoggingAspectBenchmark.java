@@ -0,0 +1,138 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.testing.benchmarks;
+
+import static java.util.concurrent.TimeUnit.*;
+
+import org.aspectj.lang.*;
+import org.aspectj.lang.reflect.*;
+import org.aspectj.runtime.internal.*;
+import org.openjdk.jmh.annotations.*;
+
+import dev.aherscu.qa.jgiven.commons.utils.*;
+import lombok.*;
+
+/**
+ * Measures the overhead added by {@link LoggingAspect} to each step method,
+ * in isolation from any JGiven machinery.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LoggingAspectBenchmark {
+    private final LoggingAspect    aspect    = new LoggingAspect();
+    private final StubbedJoinPoint joinPoint = new StubbedJoinPoint(
+        new Object[] { "some argument", 42, null, Samples.class });
+
+    @Benchmark
+    @SneakyThrows
+    public Object aroundStepMethod() {
+        return aspect.aroundStepMethod(joinPoint);
+    }
+
+    /**
+     * Just enough of a join point for {@link LoggingAspect} to work with.
+     */
+    @RequiredArgsConstructor
+    static final class StubbedJoinPoint
+        implements ProceedingJoinPoint, Signature {
+        private final Object[] args;
+
+        @Override
+        public void set$AroundClosure(final AroundClosure arc) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object proceed() {
+            return this;
+        }
+
+        @Override
+        public Object proceed(final Object[] arguments) {
+            return this;
+        }
+
+        @Override
+        public String toShortString() {
+            return getName();
+        }
+
+        @Override
+        public String toLongString() {
+            return getName();
+        }
+
+        @Override
+        public Object getThis() {
+            return this;
+        }
+
+        @Override
+        public Object getTarget() {
+            return this;
+        }
+
+        @Override
+        public Object[] getArgs() {
+            return args;
+        }
+
+        @Override
+        public Signature getSignature() {
+            return this;
+        }
+
+        @Override
+        public SourceLocation getSourceLocation() {
+            return null;
+        }
+
+        @Override
+        public String getKind() {
+            return METHOD_EXECUTION;
+        }
+
+        @Override
+        public StaticPart getStaticPart() {
+            return null;
+        }
+
+        @Override
+        public String getName() {
+            return "some_step";
+        }
+
+        @Override
+        public int getModifiers() {
+            return 0;
+        }
+
+        @Override
+        public Class<?> getDeclaringType() {
+            return getClass();
+        }
+
+        @Override
+        public String getDeclaringTypeName() {
+            return getClass().getName();
+        }
+    }
+}
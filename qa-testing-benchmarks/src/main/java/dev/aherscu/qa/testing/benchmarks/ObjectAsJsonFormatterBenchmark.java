@@ -0,0 +1,71 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.testing.benchmarks;
+
+import static java.util.concurrent.TimeUnit.*;
+
+import java.util.*;
+
+import org.openjdk.jmh.annotations.*;
+
+import dev.aherscu.qa.jgiven.commons.formatters.*;
+import lombok.*;
+
+/**
+ * Measures formatting of step arguments as JSON, as done by JGiven for each
+ * reported step argument annotated by {@link ObjectAsJsonFormatter}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ObjectAsJsonFormatterBenchmark {
+    private final ObjectAsJsonFormatter formatter = new ObjectAsJsonFormatter();
+    private Object                      small, large;
+
+    @Setup
+    public void setup() {
+        small = new Sample("some name", 42, Collections.emptyList());
+        val items = new ArrayList<Sample>();
+        for (int i = 0; i < 1000; i++) {
+            items.add(new Sample("name-" + i, i, Arrays.asList("a", "b")));
+        }
+        large = items;
+    }
+
+    @Benchmark
+    public String formatSmall() {
+        return formatter.format(small, null);
+    }
+
+    @Benchmark
+    public String formatLarge() {
+        return formatter.format(large, null);
+    }
+
+    /**
+     * A typical step argument.
+     */
+    @Value
+    public static class Sample {
+        String       name;
+        int          value;
+        List<String> tags;
+    }
+}
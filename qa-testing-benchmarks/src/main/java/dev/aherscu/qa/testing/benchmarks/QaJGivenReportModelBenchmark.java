@@ -0,0 +1,77 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.testing.benchmarks;
+
+import static java.util.concurrent.TimeUnit.*;
+
+import java.util.*;
+
+import org.apache.commons.codec.binary.Base64;
+import org.openjdk.jmh.annotations.*;
+
+import com.samskivert.mustache.*;
+
+import dev.aherscu.qa.jgiven.reporter.*;
+
+/**
+ * Measures the template methods of {@link QaJGivenReportModel}, as invoked by
+ * report templates for each step and screenshot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class QaJGivenReportModelBenchmark {
+    private Template                    shorten, deleteEOL, scaleImage;
+    private QaJGivenReportModel<Object> model;
+
+    @Setup
+    public void setup() {
+        shorten = Mustache.compiler()
+            .compile("{{#shorten}}{{jgivenReport.text}}{{/shorten}}");
+        deleteEOL = Mustache.compiler()
+            .compile("{{#deleteEOL}}{{jgivenReport.text}}{{/deleteEOL}}");
+        scaleImage = Mustache.compiler()
+            .escapeHTML(false)
+            .compile("{{#scaleImage}}{{jgivenReport.png}}{{/scaleImage}}");
+
+        final Map<String, String> report = new HashMap<>();
+        report.put("text", Samples.json().replace(",", ",\n"));
+        report.put("png", Base64.encodeBase64String(Samples.screenshot()));
+        model = QaJGivenReportModel.builder()
+            .screenshotScale("0.2")
+            .jgivenReport(report)
+            .build();
+    }
+
+    @Benchmark
+    public String shorten() {
+        return shorten.execute(model);
+    }
+
+    @Benchmark
+    public String deleteEOL() {
+        return deleteEOL.execute(model);
+    }
+
+    @Benchmark
+    public String scaleImage() {
+        return scaleImage.execute(model);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.testing.benchmarks;
+
+import java.awt.*;
+import java.awt.image.*;
+import java.io.*;
+import java.util.*;
+
+import com.tngtech.jgiven.*;
+import com.tngtech.jgiven.attachment.*;
+
+import dev.aherscu.qa.testing.utils.*;
+import lombok.*;
+import lombok.experimental.*;
+
+/**
+ * Deterministic sample data shared by benchmarks.
+ */
+@UtilityClass
+class Samples {
+    /**
+     * Typical width of a desktop browser screenshot.
+     */
+    static final int WIDTH  = 1280;
+    /**
+     * Typical height of a desktop browser screenshot.
+     */
+    static final int HEIGHT = 800;
+
+    /**
+     * @return a PNG encoded image, with some text and shapes, similar to what
+     *         a WebDriver screenshot would return
+     */
+    static byte[] screenshot() {
+        val image = new BufferedImage(WIDTH, HEIGHT,
+            BufferedImage.TYPE_INT_RGB);
+        val g2 = image.createGraphics();
+        val random = new Random(0);
+        g2.setColor(Color.WHITE);
+        g2.fillRect(0, 0, WIDTH, HEIGHT);
+        for (int i = 0; i < 200; i++) {
+            g2.setColor(new Color(random.nextInt(0xFFFFFF)));
+            g2.fillRect(random.nextInt(WIDTH), random.nextInt(HEIGHT),
+                random.nextInt(200), random.nextInt(40));
+            g2.drawString("sample text " + i,
+                random.nextInt(WIDTH), random.nextInt(HEIGHT));
+        }
+        g2.dispose();
+        return ImageUtils.Pipeline.from(image)
+            .into(new ByteArrayOutputStream(4096), "png")
+            .toByteArray();
+    }
+
+    /**
+     * @return a JSON document resembling a typical REST response
+     */
+    static String json() {
+        val json = new StringBuilder("{\"store\":{\"book\":[");
+        for (int i = 0; i < 100; i++) {
+            if (i > 0)
+                json.append(',');
+            json.append("{\"category\":\"fiction\",\"author\":\"author-")
+                .append(i)
+                .append("\",\"title\":\"title-")
+                .append(i)
+                .append("\",\"price\":")
+                .append(i + 0.99)
+                .append('}');
+        }
+        return json.append("]}}").toString();
+    }
+
+    /**
+     * Discards all attachments and descriptions.
+     */
+    static final class DiscardingCurrentStep implements CurrentStep {
+        @Override
+        public void addAttachment(final Attachment attachment) {
+            // nothing to do -- discarding
+        }
+
+        @Override
+        public void setExtendedDescription(final String extendedDescription) {
+            // nothing to do -- discarding
+        }
+
+        @Override
+        public void setName(final String name) {
+            // nothing to do -- discarding
+        }
+
+        @Override
+        public void setComment(final String comment) {
+            // nothing to do -- discarding
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.testing.benchmarks;
+
+import static java.util.concurrent.TimeUnit.*;
+
+import org.openjdk.jmh.annotations.*;
+import org.openqa.selenium.*;
+
+import dev.aherscu.qa.jgiven.commons.utils.*;
+
+/**
+ * Measures the stage infrastructure overhead: screenshot attachment, as seen
+ * by the test thread, and the retry mechanism on its success path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class StageExBenchmark {
+    private final BenchmarkedStage stage = new BenchmarkedStage();
+    private byte[]                 png;
+
+    @Setup
+    public void setup() {
+        png = Samples.screenshot();
+        stage.currentStep = new Samples.DiscardingCurrentStep();
+        stage.configurePolling();
+    }
+
+    @TearDown(Level.Iteration)
+    public void discardScreenshots() {
+        // NOTE there is no report to flush into
+        ScreenshotAttachments.discard();
+    }
+
+    @Benchmark
+    public BenchmarkedStage attachScreenshot() {
+        return stage.attachingScreenshotOf(new TakesScreenshot() {
+            @Override
+            public <X> X getScreenshotAs(final OutputType<X> target) {
+                return target.convertFromPngBytes(png);
+            }
+        });
+    }
+
+    @Benchmark
+    public BenchmarkedStage retrySucceedingImmediately() {
+        return stage.retrying();
+    }
+
+    /**
+     * Exposes protected {@link StageEx} functionality.
+     */
+    public static class BenchmarkedStage extends StageEx<BenchmarkedStage> {
+        void configurePolling() {
+            beforeScenarioConfigurePolling();
+        }
+
+        BenchmarkedStage attachingScreenshotOf(
+            final TakesScreenshot takesScreenshot) {
+            attachScreenshot(takesScreenshot, 0);
+            return self();
+        }
+
+        BenchmarkedStage retrying() {
+            return retry(this::self);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.testing.benchmarks;
+
+import static java.util.concurrent.TimeUnit.*;
+import static org.hamcrest.Matchers.*;
+
+import java.util.stream.*;
+
+import org.openjdk.jmh.annotations.*;
+
+import dev.aherscu.qa.testing.utils.*;
+
+/**
+ * Measures stream matchers over streams of varying sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class StreamMatchersBenchmark {
+    @Param({ "100", "10000" })
+    public int        size;
+
+    private Integer[] expected;
+
+    @Setup
+    public void setup() {
+        expected = IntStream.range(0, size).boxed().toArray(Integer[]::new);
+    }
+
+    @Benchmark
+    public boolean allMatch() {
+        return StreamMatchers.allMatch(greaterThanOrEqualTo(0))
+            .matches(IntStream.range(0, size).boxed());
+    }
+
+    @Benchmark
+    public boolean anyMatchLast() {
+        return StreamMatchers.anyMatch(equalTo(size - 1))
+            .matches(IntStream.range(0, size).boxed());
+    }
+
+    @Benchmark
+    public boolean yieldsExactly() {
+        return StreamMatchers.<Integer, Stream<Integer>> yieldsExactly(expected)
+            .matches(IntStream.range(0, size).boxed());
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.testing.extra.testng;
+
+import static java.util.Objects.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.*;
+
+import org.testng.*;
+
+import lombok.*;
+import lombok.extern.slf4j.*;
+
+/**
+ * Orders tests by their durations in previous runs, in order to minimize the
+ * total running time of parallel suites.
+ *
+ * <p>
+ * Durations are recorded per test method, summing all its invocations, and
+ * persisted at end of each test into a properties file, as specified by the
+ * {@code test.durations.file} system property, defaulting to
+ * {@code target/test-durations.properties}. Recorded durations are smoothed by
+ * averaging with previously persisted ones.
+ * </p>
+ *
+ * <p>
+ * Known methods are assigned longest-first to the least loaded of the
+ * configured number of threads, and returned ordered by their expected start
+ * time, such that the longest ones start first and the short ones fill the
+ * gaps. Methods never seen before are shuffled, as by {@link TestShuffler}, and
+ * placed first since their durations cannot be predicted.
+ * </p>
+ *
+ * <p>
+ * Usage, in {@code testng.xml}:
+ *
+ * <pre>
+ * &lt;listeners&gt;
+ *   &lt;listener class-name=
+ * "dev.aherscu.qa.testing.extra.testng.DurationAwareScheduler" /&gt;
+ * &lt;/listeners&gt;
+ * </pre>
+ * </p>
+ */
+@Slf4j
+public class DurationAwareScheduler
+    implements IMethodInterceptor, ITestListener {
+    /**
+     * System property specifying where durations are persisted.
+     */
+    public static final String                      DURATIONS_FILE_PROPERTY =
+        "test.durations.file";
+    private final Path                              durationsFile;
+    private final Map<String, Long>                 previous;
+    private final ConcurrentMap<String, AtomicLong> current                 =
+        new ConcurrentHashMap<>();
+
+    /**
+     * Loads durations from the file specified by
+     * {@value #DURATIONS_FILE_PROPERTY} system property.
+     */
+    public DurationAwareScheduler() {
+        this(Paths.get(System.getProperty(DURATIONS_FILE_PROPERTY,
+            "target/test-durations.properties")));
+    }
+
+    DurationAwareScheduler(final Path durationsFile) {
+        this.durationsFile = durationsFile;
+        this.previous = load(durationsFile);
+    }
+
+    /**
+     * Schedules items longest-first over specified number of threads.
+     *
+     * @param <T>
+     *            type of item
+     * @param items
+     *            the items to schedule
+     * @param durationOf
+     *            expected duration of an item, or {@code null} if unknown
+     * @param threads
+     *            number of threads
+     * @return the items, unknown ones first and shuffled, followed by known
+     *         ones ordered by their expected start time
+     */
+    static <T> List<T> schedule(
+        final List<T> items,
+        final Function<T, Long> durationOf,
+        final int threads) {
+        val unknown = new ArrayList<T>();
+        val known = new ArrayList<T>();
+        for (val item : items)
+            (isNull(durationOf.apply(item)) ? unknown : known).add(item);
+        Collections.shuffle(unknown);
+        known.sort(Comparator.comparing(durationOf).reversed());
+
+        // NOTE longest processing time first: each item goes to the thread
+        // with least load, hence starts when that load completes
+        val loads = new PriorityQueue<long[]>(Math.max(1, threads),
+            Comparator.<long[]> comparingLong(load -> load[0])
+                .thenComparingLong(load -> load[1]));
+        for (int thread = 0; thread < Math.max(1, threads); thread++)
+            loads.add(new long[] { 0, thread });
+        val startOf = new IdentityHashMap<T, Long>();
+        for (val item : known) {
+            val load = loads.poll();
+            startOf.put(item, load[0]);
+            load[0] += durationOf.apply(item);
+            loads.add(load);
+        }
+        // NOTE stable sort, hence longest first among same start times
+        known.sort(Comparator.comparing(startOf::get));
+
+        if (log.isDebugEnabled())
+            log.debug("expecting {}ms makespan for {} known, {} unknown",
+                loads.stream().mapToLong(load -> load[0]).max().orElse(0),
+                known.size(), unknown.size());
+
+        val scheduled = new ArrayList<T>(items.size());
+        scheduled.addAll(unknown);
+        scheduled.addAll(known);
+        return scheduled;
+    }
+
+    private static String keyOf(final ITestNGMethod method) {
+        return method.getQualifiedName();
+    }
+
+    private static Map<String, Long> load(final Path durationsFile) {
+        val durations = new HashMap<String, Long>();
+        if (!Files.isReadable(durationsFile))
+            return durations;
+        try (val reader = Files.newBufferedReader(durationsFile)) {
+            val properties = new Properties();
+            properties.load(reader);
+            properties.forEach((key, value) -> {
+                try {
+                    durations.put((String) key,
+                        Long.parseLong((String) value));
+                } catch (final NumberFormatException e) {
+                    log.warn("ignoring malformed duration {}={}", key, value);
+                }
+            });
+        } catch (final IOException e) {
+            log.warn("cannot load durations from {}: {}",
+                durationsFile, e.toString());
+        }
+        log.debug("loaded {} durations from {}",
+            durations.size(), durationsFile);
+        return durations;
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(
+        final List<IMethodInstance> methods,
+        final ITestContext context) {
+        return schedule(methods,
+            method -> durationOf(keyOf(method.getMethod())),
+            context.getCurrentXmlTest().getThreadCount());
+    }
+
+    @Override
+    public void onFinish(final ITestContext context) {
+        save();
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(
+        final ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestFailedWithTimeout(final ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestFailure(final ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestSuccess(final ITestResult result) {
+        record(result);
+    }
+
+    /**
+     * @param key
+     *            the test method key
+     * @return its previously persisted duration, or {@code null} if unknown
+     */
+    Long durationOf(final String key) {
+        return previous.get(key);
+    }
+
+    /**
+     * Adds to the duration recorded in this run for specified test method.
+     *
+     * @param key
+     *            the test method key
+     * @param millis
+     *            duration of one invocation
+     */
+    void record(final String key, final long millis) {
+        current
+            .computeIfAbsent(key, any -> new AtomicLong())
+            .addAndGet(millis);
+    }
+
+    private void record(final ITestResult result) {
+        record(keyOf(result.getMethod()),
+            result.getEndMillis() - result.getStartMillis());
+    }
+
+    /**
+     * Merges the durations recorded in this run with those previously
+     * persisted, and persists them.
+     */
+    synchronized void save() {
+        val properties = new Properties();
+        previous.forEach((key, duration) -> properties.setProperty(key,
+            String.valueOf(duration)));
+        current.forEach((key, duration) -> {
+            val previousDuration = previous.get(key);
+            properties.setProperty(key, String.valueOf(isNull(previousDuration)
+                ? duration.get()
+                : (previousDuration + duration.get()) / 2));
+        });
+
+        try {
+            if (nonNull(durationsFile.getParent()))
+                Files.createDirectories(durationsFile.getParent());
+            try (val writer = Files.newBufferedWriter(durationsFile)) {
+                properties.store(writer, "test durations in milliseconds");
+            }
+            log.debug("saved {} durations to {}",
+                properties.size(), durationsFile);
+        } catch (final IOException e) {
+            log.warn("cannot save durations to {}: {}",
+                durationsFile, e.toString());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.testing.extra.testng;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.nio.file.*;
+import java.util.*;
+
+import org.testng.annotations.*;
+
+import lombok.*;
+
+public class DurationAwareSchedulerTest {
+    private static final Map<String, Long> DURATIONS = Map.of(
+        "a", 8L, "b", 7L, "c", 6L, "d", 5L, "e", 4L, "f", 1L);
+
+    @Test
+    public void shouldScheduleLongestFirst() {
+        // NOTE with 2 threads: a@0 on #0, b@0 on #1, c@7 on #1, d@8 on #0,
+        // e@13 on #0 (#1 finishes c at 13), f@13 on #1
+        assertThat(DurationAwareScheduler.schedule(
+            List.of("f", "d", "b", "e", "a", "c"), DURATIONS::get, 2),
+            contains("a", "b", "c", "d", "e", "f"));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldScheduleByPersistedDurations() {
+        val durationsFile = Files.createTempFile("test-durations", ".properties");
+        try {
+            val firstRun = new DurationAwareScheduler(durationsFile);
+            firstRun.record("a", 8);
+            // NOTE invocations of same method are summed
+            firstRun.record("b", 4);
+            firstRun.record("b", 3);
+            firstRun.record("c", 6);
+            firstRun.save();
+
+            val secondRun = new DurationAwareScheduler(durationsFile);
+            assertThat(DurationAwareScheduler.schedule(
+                List.of("c", "b", "a", "x"), secondRun::durationOf, 1),
+                contains("x", "a", "b", "c"));
+
+            // NOTE averaged with previous duration, (6 + 20) / 2
+            secondRun.record("c", 20);
+            secondRun.save();
+
+            val thirdRun = new DurationAwareScheduler(durationsFile);
+            assertThat(thirdRun.durationOf("c"), is(13L));
+            assertThat(DurationAwareScheduler.schedule(
+                List.of("a", "b", "c"), thirdRun::durationOf, 1),
+                contains("c", "a", "b"));
+        } finally {
+            Files.delete(durationsFile);
+        }
+    }
+
+    @Test
+    public void shouldPlaceUnknownFirst() {
+        val scheduled = DurationAwareScheduler.schedule(
+            List.of("f", "x", "a", "y"), DURATIONS::get, 4);
+        assertThat(scheduled.subList(0, 2), containsInAnyOrder("x", "y"));
+        assertThat(scheduled.subList(2, 4), contains("a", "f"));
+    }
+}
@@ -40,4 +40,16 @@ public class JsonAssertEx extends JsonAssert {
         return new JsonAsserterExImpl(JsonPath.parse(json).json());
     }
 
+    /**
+     * Creates a JSONAsserter on an already parsed JSON document.
+     *
+     * @param json
+     *            the parsed JSON document, made of {@link java.util.Map}s,
+     *            {@link java.util.List}s and scalars
+     * @return a JSON asserter initialized with the provided document
+     */
+    public static JsonAsserterEx withParsed(final Object json) {
+        log.trace("verifying parsed JSON contents"); //$NON-NLS-1$
+        return new JsonAsserterExImpl(json);
+    }
 }
@@ -21,11 +21,12 @@ import java.util.function.*;
 import org.slf4j.*;
 
 import edu.umd.cs.findbugs.annotations.*;
+import lombok.*;
 
 /**
  * Logs the information passing through an input stream at
  * <strong>trace</strong> level. The information will be logged upon
- * {@link #close()}.
+ * {@link #close()}, up to a limited number of bytes.
  *
  * @see Logger
  *
@@ -34,11 +35,19 @@ import edu.umd.cs.findbugs.annotations.*;
  */
 @SuppressFBWarnings("LO_SUSPECT_LOG_PARAMETER")
 public class LoggingInputStream
-    extends InputStream {
-    private final LoggingStreamHelper<InputStream> loggingStream;
+    extends FilterInputStream {
+    /**
+     * Default maximum number of bytes to log, configured by the
+     * {@code logging.stream.limit} system property; 8KB if not set.
+     */
+    public static final int           DEFAULT_LIMIT =
+        LoggingStreamHelper.DEFAULT_LIMIT;
+
+    private final LoggingStreamHelper loggingStream;
 
     /**
-     * Initializes a logging input stream.
+     * Initializes a logging input stream, logging up to {@link #DEFAULT_LIMIT}
+     * bytes.
      *
      * @param input
      *            the input stream to log
@@ -48,14 +57,49 @@ public class LoggingInputStream
     public LoggingInputStream(
         final InputStream input,
         final Consumer<String> logger) {
-        super();
-        loggingStream = new LoggingStreamHelper<>(input, logger);
+        this(input, logger, DEFAULT_LIMIT);
+    }
+
+    /**
+     * Initializes a logging input stream.
+     *
+     * @param input
+     *            the input stream to log
+     * @param logger
+     *            the logger to use
+     * @param limit
+     *            maximum number of bytes to log
+     */
+    public LoggingInputStream(
+        final InputStream input,
+        final Consumer<String> logger,
+        final int limit) {
+        super(input);
+        loggingStream = new LoggingStreamHelper(logger, limit);
     }
 
     @Override
     public int read()
         throws IOException {
-        return loggingStream.tee.read();
+        val data = super.read();
+        loggingStream.capture(data);
+        return data;
+    }
+
+    @Override
+    public int read(final byte[] buffer, final int offset, final int length)
+        throws IOException {
+        val count = super.read(buffer, offset, length);
+        loggingStream.capture(buffer, offset, count);
+        return count;
+    }
+
+    /**
+     * @return false, since re-read bytes would be logged twice
+     */
+    @Override
+    public boolean markSupported() {
+        return false;
     }
 
     /**
@@ -64,7 +108,10 @@ public class LoggingInputStream
     @Override
     public void close()
         throws IOException {
-        super.close();
-        loggingStream.close();
+        try {
+            super.close();
+        } finally {
+            loggingStream.close();
+        }
     }
 }
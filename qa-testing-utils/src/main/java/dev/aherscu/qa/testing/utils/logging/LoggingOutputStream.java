@@ -25,7 +25,7 @@ import edu.umd.cs.findbugs.annotations.*;
 /**
  * Logs the information passing through an output stream at
  * <strong>trace</strong> level. The information will be logged upon
- * {@link #close()}.
+ * {@link #close()}, up to a limited number of bytes.
  *
  * @see Logger
  *
@@ -34,11 +34,19 @@ import edu.umd.cs.findbugs.annotations.*;
  */
 @SuppressFBWarnings("LO_SUSPECT_LOG_PARAMETER")
 public class LoggingOutputStream
-    extends OutputStream {
-    private final LoggingStreamHelper<OutputStream> loggingStream;
+    extends FilterOutputStream {
+    /**
+     * Default maximum number of bytes to log, configured by the
+     * {@code logging.stream.limit} system property; 8KB if not set.
+     */
+    public static final int           DEFAULT_LIMIT =
+        LoggingStreamHelper.DEFAULT_LIMIT;
+
+    private final LoggingStreamHelper loggingStream;
 
     /**
-     * Initializes a logging output stream.
+     * Initializes a logging output stream, logging up to {@link #DEFAULT_LIMIT}
+     * bytes.
      *
      * @param output
      *            the output stream to log
@@ -48,14 +56,40 @@ public class LoggingOutputStream
     public LoggingOutputStream(
         final OutputStream output,
         final Consumer<String> logger) {
-        super();
-        loggingStream = new LoggingStreamHelper<>(output, logger);
+        this(output, logger, DEFAULT_LIMIT);
+    }
+
+    /**
+     * Initializes a logging output stream.
+     *
+     * @param output
+     *            the output stream to log
+     * @param logger
+     *            the logger to use
+     * @param limit
+     *            maximum number of bytes to log
+     */
+    public LoggingOutputStream(
+        final OutputStream output,
+        final Consumer<String> logger,
+        final int limit) {
+        super(output);
+        loggingStream = new LoggingStreamHelper(logger, limit);
     }
 
     @Override
     public void write(final int data)
         throws IOException {
-        loggingStream.tee.write(data);
+        out.write(data);
+        loggingStream.capture(data & 0xFF);
+    }
+
+    @Override
+    public void write(final byte[] buffer, final int offset, final int length)
+        throws IOException {
+        // NOTE FilterOutputStream would write byte by byte
+        out.write(buffer, offset, length);
+        loggingStream.capture(buffer, offset, length);
     }
 
     /**
@@ -64,7 +98,10 @@ public class LoggingOutputStream
     @Override
     public void close()
         throws IOException {
-        super.close();
-        loggingStream.close();
+        try {
+            super.close();
+        } finally {
+            loggingStream.close();
+        }
     }
 }
@@ -15,49 +15,73 @@
  */
 package dev.aherscu.qa.testing.utils.logging;
 
+import static java.lang.Math.*;
+import static java.nio.charset.StandardCharsets.*;
+
 import java.io.*;
-import java.io.ByteArrayOutputStream;
-import java.lang.SuppressWarnings;
 import java.util.function.*;
 
-import org.apache.commons.io.input.*;
-import org.apache.commons.io.output.*;
-
 import edu.umd.cs.findbugs.annotations.*;
+import lombok.*;
 
+/**
+ * Captures up to a limited number of bytes passing through a stream and logs
+ * them upon {@link #close()}, followed by the total number of bytes if these
+ * exceeded the limit.
+ */
 @SuppressFBWarnings("LO_SUSPECT_LOG_PARAMETER")
-@SuppressWarnings("ALL")
-class LoggingStreamHelper<S extends Closeable>
+class LoggingStreamHelper
     implements Closeable {
-    protected final S              tee;
-    private final OutputStream     logOutputStream;
-    private final Consumer<String> logger;
+    /**
+     * Default maximum number of bytes to log, configured by the
+     * {@code logging.stream.limit} system property.
+     */
+    static final int                    DEFAULT_LIMIT =
+        Integer.getInteger("logging.stream.limit", 8 * 1024);
+
+    private final ByteArrayOutputStream captured;
+    private final int                   limit;
+    private final Consumer<String>      logger;
+    private long                        total;
+    private boolean                     closed;
 
-    @SuppressWarnings("unchecked")
-    @SuppressFBWarnings("ITC_INHERITANCE_TYPE_CHECKING")
     LoggingStreamHelper(
-        final S stream,
-        final Consumer<String> logger) {
-        this.logOutputStream = new ByteArrayOutputStream();
-        // noinspection ChainOfInstanceofChecks
-        if (stream instanceof OutputStream) {
-            this.tee = (S) new TeeOutputStream((OutputStream) stream,
-                logOutputStream);
-        } else if (stream instanceof InputStream) {
-            this.tee = (S) new TeeInputStream((InputStream) stream,
-                logOutputStream);
-        } else
-            throw new ClassCastException(
-                "OutputStream or InputStream derivative expected"); //$NON-NLS-1$
+        final Consumer<String> logger,
+        final int limit) {
+        if (limit < 0)
+            throw new IllegalArgumentException("negative limit " + limit);
+        this.captured = new ByteArrayOutputStream(min(limit, 1024));
+        this.limit = limit;
         this.logger = logger;
     }
 
-    @Override
-    public void close()
-        throws IOException {
-        logger.accept(logOutputStream.toString());
+    void capture(final int data) {
+        if (data < 0)
+            return;
+        total++;
+        if (captured.size() < limit)
+            captured.write(data);
+    }
+
+    void capture(final byte[] data, final int offset, final int length) {
+        if (length <= 0)
+            return;
+        total += length;
+        val room = limit - captured.size();
+        if (room > 0)
+            captured.write(data, offset, min(room, length));
+    }
 
-        logOutputStream.close();
-        tee.close();
+    /**
+     * Logs the captured bytes; subsequent calls have no effect.
+     */
+    @Override
+    public void close() {
+        if (closed)
+            return;
+        closed = true;
+        logger.accept(total > captured.size()
+            ? captured.toString(UTF_8) + "... (" + total + " bytes)"
+            : captured.toString(UTF_8));
     }
 }
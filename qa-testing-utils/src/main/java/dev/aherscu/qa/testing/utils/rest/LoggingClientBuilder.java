@@ -15,6 +15,7 @@
  */
 package dev.aherscu.qa.testing.utils.rest;
 
+import dev.aherscu.qa.testing.utils.logging.*;
 import jakarta.ws.rs.client.*;
 import lombok.experimental.*;
 import lombok.extern.slf4j.*;
@@ -46,7 +47,10 @@ public final class LoggingClientBuilder {
      * @return a client like the provided client plus registered
      *         {@link LoggingRequestFilter}, {@link LoggingResponseFilter},
      *         {@link LoggingWriterInterceptor} and
-     *         {@link LoggingReaderInterceptor}
+     *         {@link LoggingReaderInterceptor}; request and response bodies are
+     *         logged at trace level, up to
+     *         {@link LoggingInputStream#DEFAULT_LIMIT} bytes each, and are not
+     *         captured at all if trace level is disabled
      */
     public static Client newClient(final Client client) {
         log.trace("enhancing client {} with logging capabilities", client);
@@ -58,10 +62,12 @@ public final class LoggingClientBuilder {
                     new LoggingResponseFilter(log::debug))
                 .register(
                     new LoggingWriterInterceptor(
-                        message -> log.trace("writing {}", message)))
+                        message -> log.trace("writing {}", message),
+                        log::isTraceEnabled, LoggingOutputStream.DEFAULT_LIMIT))
                 .register(
                     new LoggingReaderInterceptor(
-                        message -> log.trace("reading {}", message)))
+                        message -> log.trace("reading {}", message),
+                        log::isTraceEnabled, LoggingInputStream.DEFAULT_LIMIT))
                 .getConfiguration());
 
     }
@@ -22,4 +22,13 @@ import lombok.*;
 @RequiredArgsConstructor
 class LoggingHelper {
     protected final Consumer<String> logger;
+    /**
+     * Whether the logger is enabled; when not, implementations should avoid
+     * preparing anything to log.
+     */
+    protected final BooleanSupplier  enabled;
+
+    protected LoggingHelper(final Consumer<String> logger) {
+        this(logger, () -> true);
+    }
 }
@@ -32,20 +32,41 @@ public class LoggingReaderInterceptor
     extends LoggingHelper
     implements ReaderInterceptor {
 
+    private final int limit;
+
     /**
      * @param logger
      *            the logger function to use
      */
     public LoggingReaderInterceptor(final Consumer<String> logger) {
-        super(logger);
+        this(logger, () -> true, LoggingInputStream.DEFAULT_LIMIT);
+    }
+
+    /**
+     * @param logger
+     *            the logging function to use
+     * @param enabled
+     *            whether the logger is enabled; if not, the stream is not
+     *            intercepted at all
+     * @param limit
+     *            maximum number of bytes to log
+     */
+    public LoggingReaderInterceptor(
+        final Consumer<String> logger,
+        final BooleanSupplier enabled,
+        final int limit) {
+        super(logger, enabled);
+        this.limit = limit;
     }
 
     @Override
     // NOTE: should not close the intercepted stream
     public Object aroundReadFrom(final ReaderInterceptorContext context)
         throws IOException {
-        context.setInputStream(
-            new LoggingInputStream(context.getInputStream(), logger));
+        if (enabled.getAsBoolean())
+            context.setInputStream(
+                new LoggingInputStream(context.getInputStream(), logger,
+                    limit));
         return context.proceed();
     }
 
@@ -32,12 +32,31 @@ public class LoggingWriterInterceptor
     extends LoggingHelper
     implements WriterInterceptor {
 
+    private final int limit;
+
     /**
      * @param logger
      *            the logging function to use
      */
     public LoggingWriterInterceptor(final Consumer<String> logger) {
-        super(logger);
+        this(logger, () -> true, LoggingOutputStream.DEFAULT_LIMIT);
+    }
+
+    /**
+     * @param logger
+     *            the logging function to use
+     * @param enabled
+     *            whether the logger is enabled; if not, the stream is not
+     *            intercepted at all
+     * @param limit
+     *            maximum number of bytes to log
+     */
+    public LoggingWriterInterceptor(
+        final Consumer<String> logger,
+        final BooleanSupplier enabled,
+        final int limit) {
+        super(logger, enabled);
+        this.limit = limit;
     }
 
     @SuppressWarnings("resource")
@@ -45,8 +64,10 @@ public class LoggingWriterInterceptor
     // NOTE: should not close the intercepted stream
     public void aroundWriteTo(final WriterInterceptorContext context)
         throws IOException {
-        context.setOutputStream(
-            new LoggingOutputStream(context.getOutputStream(), logger));
+        if (enabled.getAsBoolean())
+            context.setOutputStream(
+                new LoggingOutputStream(context.getOutputStream(), logger,
+                    limit));
         context.proceed();
     }
 
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2024 Adrian Herscu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.aherscu.qa.testing.utils.logging;
+
+import static java.nio.charset.StandardCharsets.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.io.*;
+import java.util.*;
+
+import org.apache.commons.io.*;
+import org.testng.annotations.*;
+
+import lombok.*;
+
+public class LoggingStreamTest {
+
+    @Test
+    @SneakyThrows
+    public void shouldLogInputPrefix() {
+        val logged = new ArrayList<String>();
+        try (val input = new LoggingInputStream(
+            new ByteArrayInputStream("0123456789".getBytes(UTF_8)),
+            logged::add, 4)) {
+            assertThat(IOUtils.toString(input, UTF_8), equalTo("0123456789"));
+        }
+        assertThat(logged, contains("0123... (10 bytes)"));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldLogOutputPrefix() {
+        val logged = new ArrayList<String>();
+        val output = new ByteArrayOutputStream();
+        try (val logging = new LoggingOutputStream(output, logged::add, 4)) {
+            logging.write("01".getBytes(UTF_8));
+            logging.write('2');
+            logging.write("3456789".getBytes(UTF_8));
+        }
+        assertThat(output.toString(UTF_8), equalTo("0123456789"));
+        assertThat(logged, contains("0123... (10 bytes)"));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldLogWholeShortStream() {
+        val logged = new ArrayList<String>();
+        try (val input = new LoggingInputStream(
+            new ByteArrayInputStream("0123".getBytes(UTF_8)),
+            logged::add, 4)) {
+            IOUtils.toString(input, UTF_8);
+        }
+        assertThat(logged, contains("0123"));
+    }
+}